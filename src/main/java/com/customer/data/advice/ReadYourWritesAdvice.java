@@ -0,0 +1,46 @@
+package com.customer.data.advice;
+
+import com.customer.data.datasource.ReadYourWrites;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Return a read-your-writes token with the successful response of a write, holding the time the write was committed
+ * A failed write, or a write request that committed nothing, gets no token
+ * The client sends the token back on its next reads to read from the primary database until the replicas catch up
+ */
+@RestControllerAdvice
+@ConditionalOnProperty(name = "customers.replicas.enabled", havingValue = "true")
+public class ReadYourWritesAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        HttpMethod method = request.getMethod();
+        String token = ReadYourWrites.getCommitToken();
+        if (method != HttpMethod.GET && method != HttpMethod.HEAD && method != HttpMethod.OPTIONS && token != null && isSuccessful(response)) {
+            response.getHeaders().set(ReadYourWrites.TOKEN_HEADER, token);
+        }
+        return body;
+    }
+
+    private static boolean isSuccessful(ServerHttpResponse response) {
+        return response instanceof ServletServerHttpResponse servletResponse
+                && HttpStatus.Series.resolve(servletResponse.getServletResponse().getStatus()) == HttpStatus.Series.SUCCESSFUL;
+    }
+}
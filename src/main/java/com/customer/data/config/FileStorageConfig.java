@@ -0,0 +1,48 @@
+package com.customer.data.config;
+
+import com.customer.data.storage.DatabaseSnapshots;
+import com.customer.data.storage.SnapshotEndpoint;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+@Configuration
+@ConditionalOnProperty(name = "customers.storage.directory")
+public class FileStorageConfig {
+
+    /**
+     * Restore the snapshot of customers.storage.restore-from into an empty storage directory
+     * A bean factory post processor runs before any bean is created, so the database file is in place before the data source opens it
+     */
+    @Bean
+    public static BeanFactoryPostProcessor snapshotRestore(Environment environment) {
+        String restoreFrom = environment.getProperty("customers.storage.restore-from", "");
+        Path directory = Path.of(environment.getRequiredProperty("customers.storage.directory"));
+        String name = environment.getRequiredProperty("customers.storage.name");
+        return beanFactory -> {
+            if (restoreFrom.isBlank()) {
+                return;
+            }
+            try {
+                DatabaseSnapshots.restoreIfMissing(Path.of(restoreFrom), directory, name);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    @Bean
+    public SnapshotEndpoint snapshotEndpoint(JdbcTemplate jdbcTemplate,
+                                             @Value("${customers.storage.snapshot-directory}") Path snapshotDirectory,
+                                             @Value("${customers.storage.name}") String name) {
+        return new SnapshotEndpoint(jdbcTemplate, snapshotDirectory, name);
+    }
+}
@@ -0,0 +1,103 @@
+package com.customer.data.config;
+
+import com.customer.data.datasource.ShardContext;
+import com.customer.data.datasource.ShardRoutingDataSource;
+import com.customer.data.entity.ShardAwareSequenceGenerator;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.schema.spi.DelayedDropRegistryNotAvailableImpl;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(name = "customers.shards.enabled", havingValue = "true")
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ShardingConfig {
+
+    /**
+     * Pools of the shards: the spring.datasource database is the first shard, followed by the databases in customers.shards.urls
+     * The spring.datasource.hikari properties are applied to all pools
+     */
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(DataSourceProperties properties, Environment environment,
+                                                         @Value("${customers.shards.urls}") List<String> shardUrls) {
+        if (environment.getProperty("customers.replicas.enabled", Boolean.class, false)) {
+            throw new IllegalStateException("customers.shards.enabled and customers.replicas.enabled cannot be used together");
+        }
+        List<HikariDataSource> shards = new ArrayList<>();
+        shards.add(properties.initializeDataSourceBuilder().type(HikariDataSource.class).build());
+        for (String url : shardUrls) {
+            if (!url.isBlank()) {
+                shards.add(DataSourceBuilder.create().type(HikariDataSource.class).url(url.trim())
+                        .driverClassName(properties.determineDriverClassName())
+                        .username(properties.determineUsername()).password(properties.determinePassword()).build());
+            }
+        }
+        for (int i = 0; i < shards.size(); i++) {
+            Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(shards.get(i)));
+            shards.get(i).setPoolName("shard-" + i);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    /**
+     * The data source used by JPA: the connection is opened at the first statement, once the shard of the transaction is chosen
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    /**
+     * Give the number of shards to the id generators, and apply the schema action of spring.jpa.hibernate.ddl-auto to every
+     * shard: Hibernate applies it only to the connection it opens at startup, the first shard
+     */
+    @Bean
+    public HibernatePropertiesCustomizer shardHibernatePropertiesCustomizer(ShardRoutingDataSource shardRoutingDataSource) {
+        int shardCount = shardRoutingDataSource.getShardCount();
+        return hibernateProperties -> {
+            hibernateProperties.put(ShardAwareSequenceGenerator.SHARD_COUNT_SETTING, shardCount);
+            hibernateProperties.put("hibernate.integrator_provider", (IntegratorProvider) () -> List.of(new ShardSchemaIntegrator(shardCount)));
+        };
+    }
+
+    private record ShardSchemaIntegrator(int shardCount) implements Integrator {
+
+        @Override
+        public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+            for (int shard = 1; shard < shardCount; shard++) {
+                ShardContext.callOn(shard, () -> {
+                    SchemaManagementToolCoordinator.process(metadata, sessionFactory.getServiceRegistry(), sessionFactory.getProperties(),
+                            DelayedDropRegistryNotAvailableImpl.INSTANCE);
+                    return null;
+                });
+            }
+        }
+
+        @Override
+        public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        }
+    }
+}
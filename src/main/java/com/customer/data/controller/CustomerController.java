@@ -1,73 +1,250 @@
 package com.customer.data.controller;
 
-import com.customer.data.controller.validation.DateValidator;
-import com.customer.data.controller.validation.DateValidatorUsingDateFormat;
 import com.customer.data.exception.CustomerValidationException;
 import com.customer.data.request.AddressRequest;
 import com.customer.data.request.CreateCustomerRequest;
 import com.customer.data.request.UpdateCustomerRequest;
+import com.customer.data.response.BatchCustomerResponse;
+import com.customer.data.response.CustomerChangesResponse;
+import com.customer.data.response.CustomerPageResponse;
 import com.customer.data.response.CustomerResponse;
+import com.customer.data.service.CustomerChangeFeed;
+import com.customer.data.service.CustomerGroupCommit;
+import com.customer.data.service.CustomerIdempotencyStore;
+import com.customer.data.service.CustomerListVersion;
 import com.customer.data.service.CustomerService;
+import com.customer.data.validation.IsoDateValidator;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("api/v1/customers")
+@Timed(value = CustomerController.ENDPOINT_TIMER, histogram = true)
 public class CustomerController {
 
+    public static final String ENDPOINT_TIMER = "customers.controller";
+
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    public static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
+    public static final int MAX_BATCH_SIZE = 5000;
+
     private final CustomerService customerService;
 
+    private final CustomerListVersion listVersion;
+
+    private final CustomerChangeFeed changeFeed;
+
+    private final CustomerGroupCommit groupCommit;
+
+    private final CustomerIdempotencyStore idempotencyStore;
+
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
     protected static final Logger logger = LogManager.getLogger();
 
-    public CustomerController(CustomerService customerService) {
+    public CustomerController(CustomerService customerService, CustomerListVersion listVersion, CustomerChangeFeed changeFeed,
+                              ObjectProvider<CustomerGroupCommit> groupCommit, CustomerIdempotencyStore idempotencyStore,
+                              ObjectMapper objectMapper, Validator validator) {
         this.customerService = customerService;
+        this.listVersion = listVersion;
+        this.changeFeed = changeFeed;
+        this.groupCommit = groupCommit.getIfAvailable();
+        this.idempotencyStore = idempotencyStore;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
     }
 
     @GetMapping
-    public ResponseEntity<List<CustomerResponse>> retrieveAll() {
-        return new ResponseEntity<>(this.customerService.getAll(), HttpStatus.OK);
+    public ResponseEntity<CustomerPageResponse> retrievePage(@RequestParam(required = false) String cursor,
+                                                             @RequestParam(defaultValue = "50") int size,
+                                                             WebRequest webRequest) throws CustomerValidationException {
+        CustomerService.validatePageSize(size);
+        String etag = listEtag("list", (cursor == null || cursor.isEmpty() ? "first" : cursor) + "-" + size, webRequest);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(this.customerService.getPage(cursor, size));
+    }
+
+    @GetMapping(params = "all=true")
+    public ResponseEntity<List<CustomerResponse>> retrieveAll(WebRequest webRequest) {
+        String etag = listEtag("all", null, webRequest);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(this.customerService.getAll());
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<CustomerChangesResponse> retrieveChanges(@RequestParam(required = false) String since,
+                                                                   @RequestParam(defaultValue = "100") int size) throws CustomerValidationException {
+        return new ResponseEntity<>(this.changeFeed.getChanges(since, size), HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream).setRootValueSeparator(null)) {
+                this.customerService.exportAll(customer -> writeLine(generator, customer));
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @PostMapping
-    public ResponseEntity<CustomerResponse> addCustomer(@RequestBody @Valid CreateCustomerRequest customer) throws CustomerValidationException {
+    public ResponseEntity<CustomerResponse> addCustomer(@RequestBody @Valid CreateCustomerRequest customer,
+                                                        @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey)
+            throws CustomerValidationException {
         customerValidation(customer);
-        return new ResponseEntity<>(this.customerService.addCustomer(customer), HttpStatus.CREATED);
+        if (idempotencyKey == null) {
+            CustomerResponse created = saveCustomer(customer);
+            return ResponseEntity.status(HttpStatus.CREATED).eTag(customerEtag(created.getId(), created.getLastUpdatedOn())).body(created);
+        }
+        CustomerIdempotencyStore.Result result = this.idempotencyStore.createOnce(idempotencyKey, customer, () -> saveCustomer(customer));
+        CustomerResponse created = result.customer();
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(customerEtag(created.getId(), created.getLastUpdatedOn()))
+                .header(IDEMPOTENT_REPLAYED, String.valueOf(result.replayed())).body(created);
+    }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchCustomerResponse>> addCustomers(@RequestBody List<CreateCustomerRequest> customers) throws CustomerValidationException {
+        if (customers.isEmpty() || customers.size() > MAX_BATCH_SIZE) {
+            logger.error("The batch size {} is not between 1 and {}!", customers.size(), MAX_BATCH_SIZE);
+            throw new CustomerValidationException("Batch size must be between 1 and " + MAX_BATCH_SIZE);
+        }
+        List<BatchCustomerResponse> results = new ArrayList<>(customers.size());
+        Map<Integer, CreateCustomerRequest> validCustomers = new LinkedHashMap<>();
+        for (int index = 0; index < customers.size(); index++) {
+            String errorMessage = batchCustomerValidation(customers.get(index));
+            if (errorMessage == null) {
+                validCustomers.put(index, customers.get(index));
+            } else {
+                results.add(BatchCustomerResponse.builder().index(index).status(BatchCustomerResponse.Status.FAILED)
+                        .errorMessage(errorMessage).build());
+            }
+        }
+        if (!validCustomers.isEmpty()) {
+            results.addAll(this.customerService.addCustomers(validCustomers));
+        }
+        results.sort(Comparator.comparingInt(BatchCustomerResponse::getIndex));
+        return new ResponseEntity<>(results, HttpStatus.OK);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<CustomerResponse> retrieveById(@PathVariable @Min(1) Long id) throws CustomerValidationException {
-        return new ResponseEntity<>(this.customerService.getCustomerById(id), HttpStatus.OK);
+    public ResponseEntity<CustomerResponse> retrieveById(@PathVariable @Min(1) Long id, WebRequest webRequest) throws CustomerValidationException {
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<Instant> version = this.customerService.getCustomerVersion(id);
+            if (version.isPresent() && webRequest.checkNotModified(customerEtag(id, version.get()))) {
+                return null;
+            }
+        }
+        CustomerResponse customer = this.customerService.getCustomerById(id);
+        return ResponseEntity.ok().eTag(customerEtag(id, customer.getLastUpdatedOn())).varyBy(HttpHeaders.ACCEPT).body(customer);
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<CustomerResponse> update(@RequestBody @Valid UpdateCustomerRequest customerRequest, @PathVariable @Valid Long id)
             throws CustomerValidationException {
         isEmailAndAddressEmpty(customerRequest.getEmail(), customerRequest.getCurrentLivingAddress());
-        return new ResponseEntity<>(this.customerService.updateCustomer(customerRequest, id), HttpStatus.OK);
+        CustomerResponse updated = this.customerService.updateCustomer(customerRequest, id);
+        return ResponseEntity.ok().eTag(customerEtag(id, updated.getLastUpdatedOn())).body(updated);
     }
 
     @GetMapping("/name/{name}")
-    public ResponseEntity<List<CustomerResponse>> searchByFirstOrLastName(@PathVariable @NotBlank String name) {
-        return new ResponseEntity<>(this.customerService.getCustomerByName(name), HttpStatus.OK);
+    public ResponseEntity<List<CustomerResponse>> searchByFirstOrLastName(@PathVariable @NotBlank String name,
+                                                                          @RequestParam(defaultValue = "20") int limit)
+            throws CustomerValidationException {
+        return new ResponseEntity<>(this.customerService.getCustomerByName(name, limit), HttpStatus.OK);
+    }
+
+    private CustomerResponse saveCustomer(CreateCustomerRequest customer) throws CustomerValidationException {
+        return this.groupCommit != null ? this.groupCommit.addCustomer(customer) : this.customerService.addCustomer(customer);
+    }
+
+    /**
+     * Weak ETag of a customer, changed by every update of the customer and every day, as the age is computed from the current date
+     * The ETag is weak because the JSON, CBOR and Smile bodies of a customer are not the same bytes
+     *
+     * @param id      - the id of the customer
+     * @param version - the time of the last update of the customer
+     * @return the ETag value
+     */
+    private static String customerEtag(Long id, Instant version) {
+        return "W/\"" + id + "-" + (version == null ? "0" : version.getEpochSecond() + "." + version.getNano()) + "-" + LocalDate.now() + "\"";
+    }
+
+    /**
+     * Weak ETag of a customer list, changed by every committed create or update, on any instance, and every day
+     * The version is read from the database only for a conditional request, the others get the last read version
+     *
+     * @param list       - the name of the list
+     * @param query      - the page of the list, null for the whole list
+     * @param webRequest - the request, checked for If-None-Match
+     * @return the ETag value
+     */
+    private String listEtag(String list, String query, WebRequest webRequest) {
+        String version = webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null ? listVersion.getVersion() : listVersion.getLastVersion();
+        return "W/\"" + list + "-" + version + (query == null ? "" : "-" + query) + "-" + LocalDate.now() + "\"";
+    }
+
+    private void writeLine(JsonGenerator generator, CustomerResponse customer) {
+        try {
+            generator.writeObject(customer);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String batchCustomerValidation(CreateCustomerRequest customer) {
+        if (customer == null) {
+            return "Customer cannot be null";
+        }
+        Set<ConstraintViolation<CreateCustomerRequest>> violations = validator.validate(customer);
+        if (!violations.isEmpty()) {
+            return violations.stream().map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted().collect(Collectors.joining(", "));
+        }
+        try {
+            customerValidation(customer);
+        } catch (CustomerValidationException e) {
+            return e.getMessage();
+        }
+        return null;
     }
 
     private void customerValidation(CreateCustomerRequest customer) throws CustomerValidationException {
-        String birthDate = customer.getBirthDate();
-        String dateFormat = "yyyy-MM-dd";
-        DateValidator validator = new DateValidatorUsingDateFormat(dateFormat);
         isEmailAndAddressEmpty(customer.getEmail(), customer.getCurrentLivingAddress());
-        if (!validator.isValid(birthDate)) {
-            logger.error("Birth date must be in " + dateFormat + " format");
-            throw new CustomerValidationException("Birth date must be in " + dateFormat + " format");
+        if (customer.getBirthLocalDate() == null) {
+            logger.error("Birth date must be in {} format", IsoDateValidator.FORMAT);
+            throw new CustomerValidationException("Birth date must be in " + IsoDateValidator.FORMAT + " format");
         }
     }
 
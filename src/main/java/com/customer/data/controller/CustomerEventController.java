@@ -0,0 +1,32 @@
+package com.customer.data.controller;
+
+import com.customer.data.event.CustomerEventStream;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("api/v1/customers")
+public class CustomerEventController {
+
+    private final CustomerEventStream eventStream;
+
+    public CustomerEventController(CustomerEventStream eventStream) {
+        this.eventStream = eventStream;
+    }
+
+    /**
+     * Stream the created and updated customers as server-sent events, named created or updated with the customer as data
+     * The connection ends after spring.mvc.async.request-timeout; the client reconnects with the Last-Event-ID header
+     *
+     * @param lastEventId - the id of the last event received before reconnecting
+     * @return the event stream
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return eventStream.subscribe(new SseEmitter(), lastEventId);
+    }
+}
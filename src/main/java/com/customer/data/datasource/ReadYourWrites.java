@@ -0,0 +1,108 @@
+package com.customer.data.datasource;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Read-your-writes token of a client: the time of its last write, sent back by the client on its next reads
+ * While the token is younger than the maximum replica lag, the read-only transactions of the request are sent to the
+ * primary database, so the client reads what it has just written even if the replicas did not receive it yet
+ */
+public final class ReadYourWrites {
+
+    public static final String TOKEN_HEADER = "X-Read-Your-Writes";
+
+    private static final ThreadLocal<Boolean> primaryRequired = new ThreadLocal<>();
+
+    private static final ThreadLocal<Long> committedAt = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    /**
+     * Create the token of a write committed now
+     *
+     * @return the token to be sent to the client
+     */
+    public static String newToken() {
+        return String.valueOf(System.currentTimeMillis());
+    }
+
+    /**
+     * Record the commit of the current read-write transaction, once it commits
+     * Nothing is recorded if the transaction rolls back
+     */
+    public static void trackCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive() || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return;
+        }
+        boolean tracked = TransactionSynchronizationManager.getSynchronizations().stream().anyMatch(CommitTracker.class::isInstance);
+        if (!tracked) {
+            TransactionSynchronizationManager.registerSynchronization(new CommitTracker());
+        }
+    }
+
+    /**
+     * Record a write committed now for the current thread, for a write committed by another thread
+     */
+    public static void recordCommit() {
+        committedAt.set(System.currentTimeMillis());
+    }
+
+    /**
+     * Get the token of the last write committed by the current thread
+     *
+     * @return the token to be sent to the client, null if no write was committed
+     */
+    public static String getCommitToken() {
+        Long time = committedAt.get();
+        return time == null ? null : String.valueOf(time);
+    }
+
+    /**
+     * Verify if a token is recent enough for the replicas to miss the write
+     *
+     * @param token  - the token sent by the client, may be null
+     * @param maxLag - the maximum time a replica stays behind the primary
+     * @return true if the reads must go to the primary database
+     */
+    public static boolean isRecent(String token, Duration maxLag) {
+        if (token == null || token.isBlank() || token.length() > 19) {
+            return false;
+        }
+        long writtenAt;
+        try {
+            writtenAt = Long.parseLong(token.trim());
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        long age = System.currentTimeMillis() - writtenAt;
+        return age >= -maxLag.toMillis() && age < maxLag.toMillis();
+    }
+
+    /**
+     * Send the read-only transactions of the current thread to the primary database
+     */
+    public static void requirePrimary() {
+        primaryRequired.set(Boolean.TRUE);
+    }
+
+    public static void clear() {
+        primaryRequired.remove();
+        committedAt.remove();
+    }
+
+    public static boolean isPrimaryRequired() {
+        return primaryRequired.get() != null;
+    }
+
+    private static final class CommitTracker implements TransactionSynchronization {
+
+        @Override
+        public void afterCommit() {
+            recordCommit();
+        }
+    }
+}
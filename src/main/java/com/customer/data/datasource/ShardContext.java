@@ -0,0 +1,80 @@
+package com.customer.data.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * The shard used by the current thread, and the encoding of the shard in the customer ids
+ * The index of the shard is kept in the lowest SHARD_BITS bits of every id, so the shard of a customer is read from its id
+ * A thread that did not choose a shard uses the first one
+ */
+public final class ShardContext {
+
+    public static final int SHARD_BITS = 8;
+
+    public static final int MAX_SHARDS = 1 << SHARD_BITS;
+
+    private static final ThreadLocal<Integer> currentShard = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * Get the shard of the current thread
+     *
+     * @return the index of the shard, 0 if none was chosen
+     */
+    public static int current() {
+        Integer shard = currentShard.get();
+        return shard == null ? 0 : shard;
+    }
+
+    public static void set(int shard) {
+        currentShard.set(shard);
+    }
+
+    public static void clear() {
+        currentShard.remove();
+    }
+
+    /**
+     * Run a call on a shard, then restore the shard the thread used before
+     *
+     * @param shard - the index of the shard
+     * @param call  - the call to be run
+     * @return the result of the call
+     */
+    public static <T> T callOn(int shard, Supplier<T> call) {
+        Integer previous = currentShard.get();
+        currentShard.set(shard);
+        try {
+            return call.get();
+        } finally {
+            if (previous == null) {
+                currentShard.remove();
+            } else {
+                currentShard.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Build the id of a customer saved on a shard
+     *
+     * @param sequenceValue - the value of the id sequence of the shard
+     * @param shard         - the index of the shard
+     * @return the id, with the shard in its lowest bits
+     */
+    public static long encode(long sequenceValue, int shard) {
+        return sequenceValue << SHARD_BITS | shard;
+    }
+
+    /**
+     * Get the shard of a customer from its id
+     *
+     * @param id - the id of the customer
+     * @return the index of the shard
+     */
+    public static int shardOf(long id) {
+        return (int) (id & (MAX_SHARDS - 1));
+    }
+}
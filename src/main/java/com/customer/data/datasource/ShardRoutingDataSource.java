@@ -0,0 +1,52 @@
+package com.customer.data.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Send the connections to the pool of the shard chosen by the current thread in the ShardContext
+ * The decision is taken when the connection is opened, so this data source must be used behind a LazyConnectionDataSourceProxy:
+ * the service chooses the shard of a write inside the transaction, before its first statement
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private final List<HikariDataSource> shards;
+
+    /**
+     * Create the routing over the pools
+     *
+     * @param shards - the pools of the shards, by their index
+     */
+    public ShardRoutingDataSource(List<HikariDataSource> shards) {
+        if (shards.isEmpty() || shards.size() > ShardContext.MAX_SHARDS) {
+            throw new IllegalArgumentException("The number of shards must be between 1 and " + ShardContext.MAX_SHARDS);
+        }
+        this.shards = List.copyOf(shards);
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            targets.put(i, shards.get(i));
+        }
+        setTargetDataSources(targets);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+
+    @Override
+    public void close() {
+        shards.forEach(HikariDataSource::close);
+    }
+}
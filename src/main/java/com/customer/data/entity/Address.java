@@ -3,6 +3,9 @@ package com.customer.data.entity;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import org.apache.catalina.util.CustomObjectInputStream;
 
 @Builder
@@ -14,7 +17,10 @@ import org.apache.catalina.util.CustomObjectInputStream;
 public class Address {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "address_seq")
+    @GenericGenerator(name = "address_seq", type = ShardAwareSequenceGenerator.class, parameters = {
+            @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "address_seq"),
+            @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "50")})
     private Long id;
 
     @Column
@@ -2,12 +2,16 @@ package com.customer.data.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.SourceType;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Locale;
 
 @Builder
 @NoArgsConstructor
@@ -15,10 +19,17 @@ import java.time.LocalDate;
 @Getter
 @Setter
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = Customer.EMAIL_CONSTRAINT, columnNames = "emailKey"),
+        indexes = @Index(name = "idx_customer_changes", columnList = "lastUpdatedOn, id"))
 public class Customer {
 
+    public static final String EMAIL_CONSTRAINT = "uk_customer_email_key";
+
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "customer_seq")
+    @GenericGenerator(name = "customer_seq", type = ShardAwareSequenceGenerator.class, parameters = {
+            @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "customer_seq"),
+            @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "50")})
     private Long id;
 
     @Column(nullable = false)
@@ -30,17 +41,43 @@ public class Customer {
     @Column
     private String email;
 
+    /**
+     * The normalized email, kept by the entity, so the unique constraint ignores case and surrounding spaces
+     */
+    @Setter(AccessLevel.NONE)
+    @Column
+    private String emailKey;
+
     @Column
     private LocalDate age;
 
-    @CreationTimestamp(source = SourceType.DB)
+    @CreationTimestamp(source = SourceType.VM)
     private Instant createdOn;
 
-    @UpdateTimestamp(source = SourceType.DB)
+    @UpdateTimestamp(source = SourceType.VM)
     private Instant lastUpdatedOn;
 
     @OneToOne(cascade = CascadeType.PERSIST)
     @JoinColumn(name = "address_id", nullable = true)
     private Address currentLivingAddress;
 
+    /**
+     * Normalize an email for comparisons: surrounding spaces removed and lower case
+     *
+     * @param email - the email
+     * @return the normalized email, null if the email is null or blank
+     */
+    public static String normalizeEmail(String email) {
+        if (email == null || email.isBlank()) {
+            return null;
+        }
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @PrePersist
+    @PreUpdate
+    private void updateEmailKey() {
+        emailKey = normalizeEmail(email);
+    }
+
 }
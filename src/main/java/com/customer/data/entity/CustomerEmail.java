@@ -0,0 +1,29 @@
+package com.customer.data.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Owner of an email across the shards: the row is kept on the shard chosen by the email, so its primary key decides which
+ * customer registers an email, whatever the shard of the customer
+ */
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "customer_email")
+public class CustomerEmail {
+
+    @Id
+    private String email;
+
+    @Column(nullable = false)
+    private Long customerId;
+
+    @Column(nullable = false)
+    private Instant reservedOn;
+}
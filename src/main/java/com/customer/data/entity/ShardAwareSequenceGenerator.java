@@ -0,0 +1,54 @@
+package com.customer.data.entity;
+
+import com.customer.data.datasource.ShardContext;
+import org.hibernate.HibernateException;
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.PooledOptimizer;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * Sequence generator of the customer and address ids
+ * Without shards it is the pooled sequence generator; with shards every shard has its own sequence and pool of values,
+ * and the index of the shard is added to the lowest bits of the id, so ids never collide between shards
+ */
+public class ShardAwareSequenceGenerator extends SequenceStyleGenerator {
+
+    /**
+     * Hibernate setting with the number of shards, set by the sharding configuration
+     */
+    public static final String SHARD_COUNT_SETTING = "customers.shard_count";
+
+    private PooledOptimizer[] shardOptimizers;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        super.configure(type, params, serviceRegistry);
+        Object shardCount = serviceRegistry.requireService(ConfigurationService.class).getSettings().get(SHARD_COUNT_SETTING);
+        int shards = shardCount == null ? 1 : Integer.parseInt(shardCount.toString());
+        if (shards > 1) {
+            int initialValue = ConfigurationHelper.getInt(INITIAL_PARAM, params, DEFAULT_INITIAL_VALUE);
+            shardOptimizers = new PooledOptimizer[shards];
+            for (int i = 0; i < shards; i++) {
+                shardOptimizers[i] = new PooledOptimizer(type.getReturnedClass(), getOptimizer().getIncrementSize());
+                shardOptimizers[i].injectInitialValue(initialValue);
+            }
+        }
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) throws HibernateException {
+        if (shardOptimizers == null) {
+            return super.generate(session, object);
+        }
+        int shard = ShardContext.current();
+        Number sequenceValue = (Number) shardOptimizers[shard].generate(getDatabaseStructure().buildCallback(session));
+        return ShardContext.encode(sequenceValue.longValue(), shard);
+    }
+}
@@ -0,0 +1,25 @@
+package com.customer.data.event;
+
+import com.customer.data.response.CustomerResponse;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by the customer service for every saved customer
+ * Listeners that keep derived state (indexes, caches) in sync should react after the transaction commits
+ */
+@Getter
+@AllArgsConstructor
+public class CustomerChangedEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED
+    }
+
+    private final Type type;
+
+    private final CustomerResponse customer;
+
+    private final String previousEmail;
+}
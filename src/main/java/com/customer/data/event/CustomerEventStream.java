@@ -0,0 +1,448 @@
+package com.customer.data.event;
+
+import com.customer.data.response.CustomerResponse;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Push the committed customer changes to the server-sent events subscribers
+ * The changes of a transaction are buffered as one entry, so a batch of customers takes one place in the buffers
+ * Every subscriber has a bounded buffer drained by its own sender task, run by a bounded pool of sender threads, so a slow
+ * client never blocks the committing request or the other subscribers
+ * A write blocked for longer than the write timeout disconnects its subscriber, and the pool gets another thread until the
+ * blocked one returns, so blocked clients cannot hold all the sender threads
+ * A subscriber whose buffer is full keeps buffering until its sender has sent the entries waiting at that time; if the
+ * buffer is still full then, or reaches twice its size meanwhile, the subscriber is disconnected and can resume with Last-Event-ID
+ * The last events are kept in a replay ring, a subscriber resuming from an older or unknown event id gets a reset event
+ * and should read the customers again, for example from the change feed
+ */
+@Component
+public class CustomerEventStream {
+
+    public static final String RESET_EVENT = "reset";
+
+    private static final long HEARTBEAT_SECONDS = 15;
+
+    private static final long RECONNECT_MILLIS = 3000;
+
+    protected static final Logger logger = LogManager.getLogger();
+
+    private final int bufferSize;
+
+    private final int replaySize;
+
+    private final String instanceId = Long.toHexString(UUID.randomUUID().getMostSignificantBits());
+
+    private final Deque<StreamEvent> replay = new ArrayDeque<>();
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    private final ThreadPoolExecutor senders;
+
+    private final long writeTimeoutNanos;
+
+    private final Set<Subscriber> writing = ConcurrentHashMap.newKeySet();
+
+    private final ScheduledExecutorService heartbeat;
+
+    private long sequence;
+
+    public CustomerEventStream(@Value("${customers.events.buffer-size:256}") int bufferSize,
+                               @Value("${customers.events.replay-size:1024}") int replaySize,
+                               @Value("${customers.events.sender-threads:8}") int senderThreads,
+                               @Value("${customers.events.write-timeout:10s}") Duration writeTimeout) {
+        this.bufferSize = bufferSize;
+        this.replaySize = replaySize;
+        this.writeTimeoutNanos = writeTimeout.toNanos();
+        AtomicInteger threads = new AtomicInteger();
+        // a subscriber has at most one sender task queued, so the queue is bounded by the subscribers
+        this.senders = new ThreadPoolExecutor(senderThreads, senderThreads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                runnable -> daemon(runnable, "customer-events-" + threads.incrementAndGet()));
+        this.senders.allowCoreThreadTimeOut(true);
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> daemon(runnable, "customer-events-heartbeat"));
+        this.heartbeat.scheduleWithFixedDelay(this::sendHeartbeat, HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+        long checkMillis = Math.max(writeTimeout.toMillis() / 2, 1);
+        this.heartbeat.scheduleWithFixedDelay(this::evictBlockedWriters, checkMillis, checkMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Register a subscriber, first sending it the events after the last event it received
+     *
+     * @param emitter     - the emitter of the subscriber
+     * @param lastEventId - the Last-Event-ID sent by a reconnecting client, null for a new client
+     * @return the emitter
+     */
+    public SseEmitter subscribe(SseEmitter emitter, String lastEventId) {
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        synchronized (this) {
+            subscriber.offer(List.of(StreamEvent.CONNECTED), Integer.MAX_VALUE);
+            if (lastEventId != null && !lastEventId.isEmpty()) {
+                replayAfter(subscriber, lastEventId);
+            }
+            subscribers.add(subscriber);
+        }
+        logger.debug("New customer events subscriber, {} subscribers.", subscribers.size());
+        return emitter;
+    }
+
+    /**
+     * Send a change to every subscriber once its transaction commits, together with the other changes of the transaction
+     * A change made outside of a transaction is sent at once
+     *
+     * @param event - the saved customer
+     */
+    @EventListener
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(List.of(event));
+            return;
+        }
+        TransactionChanges changes = TransactionSynchronizationManager.getSynchronizations().stream()
+                .filter(synchronization -> synchronization instanceof TransactionChanges transactionChanges && transactionChanges.isOf(this))
+                .map(TransactionChanges.class::cast).findFirst().orElse(null);
+        if (changes == null) {
+            changes = new TransactionChanges();
+            TransactionSynchronizationManager.registerSynchronization(changes);
+        }
+        changes.events.add(event);
+    }
+
+    /**
+     * Get the number of connected subscribers
+     *
+     * @return the number of subscribers
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        heartbeat.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    private void publish(List<CustomerChangedEvent> events) {
+        synchronized (this) {
+            List<StreamEvent> streamEvents = new ArrayList<>(events.size());
+            for (CustomerChangedEvent event : events) {
+                streamEvents.add(new StreamEvent(instanceId + "-" + ++sequence, event.getType().name().toLowerCase(Locale.ROOT),
+                        event.getCustomer()));
+            }
+            replay.addAll(streamEvents);
+            // the last transaction is always kept whole, so its subscribers can resume within it
+            while (replay.size() > Math.max(replaySize, streamEvents.size())) {
+                replay.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                if (!subscriber.offer(streamEvents, bufferSize)) {
+                    evict(subscriber);
+                }
+            }
+        }
+    }
+
+    private void replayAfter(Subscriber subscriber, String lastEventId) {
+        String prefix = instanceId + "-";
+        long lastSequence = -1;
+        if (lastEventId.startsWith(prefix)) {
+            try {
+                lastSequence = Long.parseLong(lastEventId.substring(prefix.length()));
+            } catch (NumberFormatException e) {
+                // an unknown event id, the subscriber is reset below
+            }
+        }
+        long oldestSequence = replay.isEmpty() ? sequence + 1 : sequence - replay.size() + 1;
+        if (lastSequence < oldestSequence - 1 || lastSequence > sequence) {
+            subscriber.offer(List.of(new StreamEvent(null, RESET_EVENT, null)), Integer.MAX_VALUE);
+            return;
+        }
+        List<StreamEvent> missed = replay.stream().skip(lastSequence - oldestSequence + 1).toList();
+        if (!missed.isEmpty()) {
+            subscriber.offer(missed, Integer.MAX_VALUE);
+        }
+    }
+
+    private void sendHeartbeat() {
+        subscribers.forEach(Subscriber::offerHeartbeat);
+    }
+
+    /**
+     * Disconnect the subscribers whose write is blocked for longer than the write timeout, and give the pool a thread for
+     * each of them until their write returns
+     */
+    private void evictBlockedWriters() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : writing) {
+            if (subscriber.abandonBlockedWrite(now)) {
+                logger.warn("Disconnect a customer events subscriber blocked on a write for more than {} ms.", writeTimeoutNanos / 1_000_000);
+                evict(subscriber);
+            }
+        }
+    }
+
+    private void resizeSenders(int delta) {
+        synchronized (senders) {
+            if (delta > 0) {
+                senders.setMaximumPoolSize(senders.getMaximumPoolSize() + delta);
+                senders.setCorePoolSize(senders.getCorePoolSize() + delta);
+            } else {
+                senders.setCorePoolSize(senders.getCorePoolSize() + delta);
+                senders.setMaximumPoolSize(senders.getMaximumPoolSize() + delta);
+            }
+        }
+    }
+
+    private void evict(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            logger.warn("Disconnect a slow customer events subscriber, {} changes are waiting.", bufferSize);
+            subscriber.discardPending();
+            senders.execute(subscriber.emitter::complete);
+        }
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private record StreamEvent(String id, String name, CustomerResponse customer) {
+
+        static final StreamEvent CONNECTED = new StreamEvent(null, null, null);
+
+        static final StreamEvent HEARTBEAT = new StreamEvent(null, null, null);
+    }
+
+    /**
+     * The changes of a transaction, sent after its commit
+     */
+    private final class TransactionChanges implements TransactionSynchronization {
+
+        private final List<CustomerChangedEvent> events = new ArrayList<>();
+
+        boolean isOf(CustomerEventStream eventStream) {
+            return eventStream == CustomerEventStream.this;
+        }
+
+        @Override
+        public void afterCommit() {
+            publish(events);
+        }
+    }
+
+    /**
+     * A connected client with the changes not yet sent to it, sent in order by at most one sender task at a time
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+
+        private final Deque<List<StreamEvent>> pending = new ArrayDeque<>();
+
+        private boolean sending;
+
+        private boolean closed;
+
+        /**
+         * The entries to be taken before checking again a full buffer, the entries waiting when it was full and the next
+         * one, 0 while the buffer is not full
+         */
+        private int sendsBeforeCheck;
+
+        private boolean lagging;
+
+        private final Object writeLock = new Object();
+
+        private long writeStartedNanos;
+
+        private Thread writer;
+
+        private boolean abandoned;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * Buffer the events of a transaction
+         *
+         * @param events - the events to be sent
+         * @param limit  - the size of the buffer
+         * @return false if the buffer reached twice its size, the subscriber must be disconnected
+         */
+        synchronized boolean offer(List<StreamEvent> events, int limit) {
+            if (closed || lagging) {
+                return true;
+            }
+            if (pending.size() >= limit) {
+                if (pending.size() >= limit * 2) {
+                    return false;
+                }
+                if (sendsBeforeCheck == 0) {
+                    sendsBeforeCheck = pending.size() + 1;
+                }
+            }
+            pending.addLast(events);
+            if (!sending) {
+                sending = true;
+                senders.execute(this::sendPending);
+            }
+            return true;
+        }
+
+        /**
+         * Buffer a heartbeat if there is nothing to send, the heartbeat only keeps an idle connection open
+         */
+        synchronized void offerHeartbeat() {
+            if (pending.isEmpty()) {
+                offer(List.of(StreamEvent.HEARTBEAT), 1);
+            }
+        }
+
+        /**
+         * Stop sending, the emitter is completed by the caller outside of the lock, as it waits for a send in progress
+         */
+        synchronized void discardPending() {
+            closed = true;
+            pending.clear();
+        }
+
+        private void sendPending() {
+            try {
+                sendAll();
+            } finally {
+                if (isAbandoned()) {
+                    resizeSenders(-1);
+                }
+            }
+        }
+
+        private void sendAll() {
+            List<StreamEvent> events;
+            while ((events = next()) != null) {
+                try {
+                    for (StreamEvent event : events) {
+                        write(event);
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    logger.debug("The customer events subscriber is disconnected: {}", e.getMessage());
+                    subscribers.remove(this);
+                    discardPending();
+                    return;
+                }
+            }
+            if (isLagging()) {
+                evict(this);
+            }
+        }
+
+        private void write(StreamEvent event) throws IOException {
+            synchronized (writeLock) {
+                writeStartedNanos = System.nanoTime();
+                writer = Thread.currentThread();
+            }
+            writing.add(this);
+            try {
+                send(event);
+            } finally {
+                writing.remove(this);
+                synchronized (writeLock) {
+                    writer = null;
+                    if (abandoned) {
+                        // clear the interrupt of a write that returned by itself
+                        Thread.interrupted();
+                    }
+                }
+            }
+        }
+
+        /**
+         * Abandon the write in progress if it is blocked for longer than the write timeout, interrupting its thread
+         *
+         * @param now - the current System.nanoTime()
+         * @return true if the write is abandoned, the pool got a thread in place of the blocked one
+         */
+        boolean abandonBlockedWrite(long now) {
+            synchronized (writeLock) {
+                if (writer == null || abandoned || now - writeStartedNanos < writeTimeoutNanos) {
+                    return false;
+                }
+                abandoned = true;
+                resizeSenders(1);
+                writer.interrupt();
+                return true;
+            }
+        }
+
+        private boolean isAbandoned() {
+            synchronized (writeLock) {
+                return abandoned;
+            }
+        }
+
+        private void send(StreamEvent event) throws IOException {
+            if (event == StreamEvent.CONNECTED) {
+                emitter.send(SseEmitter.event().reconnectTime(RECONNECT_MILLIS).comment("connected"));
+            } else if (event == StreamEvent.HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            } else if (event.customer() == null) {
+                emitter.send(SseEmitter.event().name(event.name()).data(""));
+            } else {
+                emitter.send(SseEmitter.event().id(event.id()).name(event.name()).data(event.customer(), MediaType.APPLICATION_JSON));
+            }
+        }
+
+        /**
+         * Take the next entry to be sent
+         *
+         * @return null if nothing is left to send, or the buffer is still full after sending the entries waiting when it was full
+         */
+        private synchronized List<StreamEvent> next() {
+            if (sendsBeforeCheck > 0 && --sendsBeforeCheck == 0 && pending.size() >= bufferSize) {
+                lagging = true;
+                sending = false;
+                return null;
+            }
+            List<StreamEvent> events = closed ? null : pending.pollFirst();
+            if (events == null) {
+                sending = false;
+            }
+            return events;
+        }
+
+        private synchronized boolean isLagging() {
+            return lagging;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.customer.data.filter;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limit the number of customer requests in progress with a GradientConcurrencyLimit, so a slow database does not
+ * queue requests in Tomcat until every client times out
+ * A request over the limit, or over the share of its client, is answered at once with 429 and a Retry-After header
+ * The client is identified by its address, as resolved by the server from trusted proxies; the X-Client-Id header, chosen
+ * freely by the client, only splits the share of its address
+ * The event stream is not limited, a subscriber holds its request for as long as it is connected
+ * The batch create and the list of all customers take a time that depends on their size and not on the load, so their
+ * latency does not move the limit
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "customers.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter implements MeterBinder {
+
+    public static final String CLIENT_ID_HEADER = "X-Client-Id";
+
+    public static final String LIMITED_PATH = "/api/v1/customers";
+
+    private static final String EVENTS_PATH = LIMITED_PATH + "/events";
+
+    private static final String BATCH_PATH = LIMITED_PATH + "/batch";
+
+    private static final int MAX_CLIENT_ID_LENGTH = 64;
+
+    private static final String REJECTED_BODY = "{\"errorMessage\":\"Too many requests, retry later\"}";
+
+    protected static final Logger logger = LogManager.getLogger();
+
+    private final GradientConcurrencyLimit limit;
+
+    public ConcurrencyLimitFilter(@Value("${customers.concurrency-limit.initial-limit:20}") int initialLimit,
+                                  @Value("${customers.concurrency-limit.min-limit:4}") int minLimit,
+                                  @Value("${customers.concurrency-limit.max-limit:200}") int maxLimit) {
+        this.limit = new GradientConcurrencyLimit(initialLimit, minLimit, maxLimit);
+    }
+
+    public GradientConcurrencyLimit getLimit() {
+        return limit;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = path(request);
+        return !(path.equals(LIMITED_PATH) || path.startsWith(LIMITED_PATH + "/")) || path.equals(EVENTS_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        GradientConcurrencyLimit.Permit permit = limit.tryAcquire(request.getRemoteAddr(), subClientId(request));
+        if (permit == null) {
+            reject(response);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean released = true;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // The streamed export keeps the permit until it is written, its time depends on its size and not on the load
+                request.getAsyncContext().addListener(new ReleaseOnCompletion(permit));
+                released = false;
+            }
+        } finally {
+            if (released && isSizeDependent(request)) {
+                permit.releaseWithoutSample();
+            } else if (released) {
+                permit.release(System.nanoTime() - start);
+            }
+        }
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static boolean isSizeDependent(HttpServletRequest request) {
+        String path = path(request);
+        return path.equals(BATCH_PATH) || (path.equals(LIMITED_PATH) && "true".equals(request.getParameter("all")));
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        logger.debug("Reject the request, {} requests are in progress for a limit of {}.", limit.getInFlight(), limit.getLimit());
+        long retryAfterSeconds = Math.max(1, (long) Math.ceil(limit.getLongRtt(TimeUnit.MILLISECONDS) / 1000.0));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(REJECTED_BODY);
+    }
+
+    private static String subClientId(HttpServletRequest request) {
+        String clientId = request.getHeader(CLIENT_ID_HEADER);
+        if (clientId == null || clientId.isBlank() || clientId.length() > MAX_CLIENT_ID_LENGTH) {
+            return "";
+        }
+        return clientId;
+    }
+
+    /**
+     * Publish the limit, the requests in progress and the rejected requests as customers.concurrency.* metrics
+     *
+     * @param registry - the registry of the application
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("customers.concurrency.limit", limit, GradientConcurrencyLimit::getLimit)
+                .description("Customer requests allowed in progress").register(registry);
+        Gauge.builder("customers.concurrency.in.flight", limit, GradientConcurrencyLimit::getInFlight)
+                .description("Customer requests in progress").register(registry);
+        Gauge.builder("customers.concurrency.clients", limit, GradientConcurrencyLimit::getClients)
+                .description("Clients with customer requests in progress").register(registry);
+        FunctionCounter.builder("customers.concurrency.rejected", limit, GradientConcurrencyLimit::getRejectedByLimit)
+                .description("Customer requests rejected with 429").tag("reason", "limit").register(registry);
+        FunctionCounter.builder("customers.concurrency.rejected", limit, GradientConcurrencyLimit::getRejectedByClientShare)
+                .description("Customer requests rejected with 429").tag("reason", "client").register(registry);
+    }
+
+    private record ReleaseOnCompletion(GradientConcurrencyLimit.Permit permit) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            permit.releaseWithoutSample();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            permit.releaseWithoutSample();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            permit.releaseWithoutSample();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.customer.data.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.logging.log4j.ThreadContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Put a correlation id in the log4j2 thread context for every request, so all log lines of a request can be grouped
+ * The id is taken from the X-Correlation-Id header when the client sends one made of letters, digits, '.', '_' and '-',
+ * otherwise a new id is generated, so a client cannot write line breaks or other text into the logs
+ * The id is returned to the client in the same header
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CorrelationIdFilter extends OncePerRequestFilter {
+
+    public static final String CORRELATION_ID_HEADER = "X-Correlation-Id";
+
+    public static final String CORRELATION_ID_KEY = "correlationId";
+
+    private static final Pattern VALID_CORRELATION_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String correlationId = (String) request.getAttribute(CORRELATION_ID_KEY);
+        if (correlationId == null) {
+            correlationId = request.getHeader(CORRELATION_ID_HEADER);
+            if (correlationId == null || !VALID_CORRELATION_ID.matcher(correlationId).matches()) {
+                correlationId = UUID.randomUUID().toString();
+            }
+            request.setAttribute(CORRELATION_ID_KEY, correlationId);
+            response.setHeader(CORRELATION_ID_HEADER, correlationId);
+        }
+        ThreadContext.put(CORRELATION_ID_KEY, correlationId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ThreadContext.remove(CORRELATION_ID_KEY);
+        }
+    }
+
+    /**
+     * The async dispatch of a streamed response runs on another thread, so the same correlation id is set again for it
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+}
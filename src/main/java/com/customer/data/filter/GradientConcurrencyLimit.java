@@ -0,0 +1,236 @@
+package com.customer.data.filter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe concurrency limit adapted to the observed latency, with a fair share of the limit for every client
+ * The limit follows the gradient between the long term latency and the latency of the last requests:
+ * while the last requests are not slower than the long term latency the limit grows by its square root,
+ * when they get slower the limit shrinks by the same ratio, at most to half of it
+ * The limit only grows when at least half of it is used, so a few slow requests cannot open it without end
+ * A client may hold at most the limit divided by the number of clients with requests in progress, and the sub-clients
+ * of a client share its part in the same way, so a client naming new sub-clients does not get more of the limit
+ */
+public final class GradientConcurrencyLimit {
+
+    private static final double SMOOTHING = 0.2;
+
+    private static final double TOLERANCE = 1.5;
+
+    private static final int SHORT_WINDOW = 10;
+
+    private static final int LONG_WINDOW = 600;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final ConcurrentHashMap<String, ClientInFlight> clientsInFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder rejectedByLimit = new LongAdder();
+
+    private final LongAdder rejectedByClientShare = new LongAdder();
+
+    private volatile double estimatedLimit;
+
+    private double shortRttNanos;
+
+    private double longRttNanos;
+
+    /**
+     * Create a limit starting from the initial limit
+     *
+     * @param initialLimit - the number of requests allowed in progress before the first measured latencies
+     * @param minLimit     - the limit never goes below this number of requests
+     * @param maxLimit     - the limit never goes above this number of requests
+     */
+    public GradientConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("The limits must satisfy 1 <= min-limit <= initial-limit <= max-limit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.estimatedLimit = initialLimit;
+    }
+
+    /**
+     * A request allowed by the limit, to be released once when the request ends
+     */
+    public final class Permit {
+
+        private final String client;
+
+        private final String subClient;
+
+        private final int inFlightOnAcquire;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(String client, String subClient, int inFlightOnAcquire) {
+            this.client = client;
+            this.subClient = subClient;
+            this.inFlightOnAcquire = inFlightOnAcquire;
+        }
+
+        /**
+         * Release the permit and adapt the limit to the latency of the request
+         *
+         * @param rttNanos - the time the request took
+         */
+        public void release(long rttNanos) {
+            if (releaseSlot()) {
+                onSample(rttNanos, inFlightOnAcquire);
+            }
+        }
+
+        /**
+         * Release the permit without a latency sample, for a request whose time does not depend on the load
+         */
+        public void releaseWithoutSample() {
+            releaseSlot();
+        }
+
+        private boolean releaseSlot() {
+            if (!released.compareAndSet(false, true)) {
+                return false;
+            }
+            inFlight.decrementAndGet();
+            clientsInFlight.computeIfPresent(client, (key, clientInFlight) -> clientInFlight.release(subClient) ? null : clientInFlight);
+            return true;
+        }
+    }
+
+    /**
+     * Allow a request of the client if the limit and the share of the client are not used
+     *
+     * @param client - the id of the client sending the request
+     * @return the permit of the request, or null if the request must be rejected
+     */
+    public Permit tryAcquire(String client) {
+        return tryAcquire(client, "");
+    }
+
+    /**
+     * Allow a request of a sub-client if the limit, the share of the client and the share of the sub-client within it are not used
+     *
+     * @param client    - the id of the client sending the request
+     * @param subClient - the id of the sub-client within the client
+     * @return the permit of the request, or null if the request must be rejected
+     */
+    public Permit tryAcquire(String client, String subClient) {
+        int limit = getLimit();
+        int acquired;
+        do {
+            acquired = inFlight.get();
+            if (acquired >= limit) {
+                rejectedByLimit.increment();
+                return null;
+            }
+        } while (!inFlight.compareAndSet(acquired, acquired + 1));
+
+        boolean[] admitted = new boolean[1];
+        clientsInFlight.compute(client, (key, clientInFlight) -> {
+            int clients = clientInFlight == null ? clientsInFlight.size() + 1 : clientsInFlight.size();
+            int share = Math.max(1, (limit + clients - 1) / clients);
+            ClientInFlight acquiring = clientInFlight == null ? new ClientInFlight() : clientInFlight;
+            admitted[0] = acquiring.tryAcquire(subClient, share);
+            return acquiring.total == 0 ? null : acquiring;
+        });
+        if (admitted[0]) {
+            return new Permit(client, subClient, acquired + 1);
+        }
+        inFlight.decrementAndGet();
+        rejectedByClientShare.increment();
+        return null;
+    }
+
+    /**
+     * The requests in progress of a client, by sub-client, only changed inside the map operations on the client
+     */
+    private static final class ClientInFlight {
+
+        private final Map<String, Integer> subClients = new HashMap<>();
+
+        private int total;
+
+        boolean tryAcquire(String subClient, int share) {
+            Integer count = subClients.get(subClient);
+            int clients = count == null ? subClients.size() + 1 : subClients.size();
+            int subShare = Math.max(1, (share + clients - 1) / clients);
+            if (total >= share || (count != null && count >= subShare)) {
+                return false;
+            }
+            subClients.merge(subClient, 1, Integer::sum);
+            total++;
+            return true;
+        }
+
+        /**
+         * @return true if the client has no request in progress anymore
+         */
+        boolean release(String subClient) {
+            subClients.computeIfPresent(subClient, (key, count) -> count == 1 ? null : count - 1);
+            total--;
+            return total == 0;
+        }
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightOnAcquire) {
+        if (shortRttNanos == 0) {
+            shortRttNanos = rttNanos;
+            longRttNanos = rttNanos;
+            return;
+        }
+        shortRttNanos += (rttNanos - shortRttNanos) / SHORT_WINDOW;
+        longRttNanos += (rttNanos - longRttNanos) / LONG_WINDOW;
+        // After a long slowdown the long term latency is too high, let it follow the recovered latency faster
+        if (longRttNanos / shortRttNanos > 2) {
+            longRttNanos *= 0.95;
+        }
+        if (inFlightOnAcquire < estimatedLimit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / shortRttNanos));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        newLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+
+    public int getLimit() {
+        return (int) estimatedLimit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getClients() {
+        return clientsInFlight.size();
+    }
+
+    public long getRejectedByLimit() {
+        return rejectedByLimit.sum();
+    }
+
+    public long getRejectedByClientShare() {
+        return rejectedByClientShare.sum();
+    }
+
+    /**
+     * Get the long term latency of the requests
+     *
+     * @param unit - the unit of the returned latency
+     * @return the long term latency, 0 before the first released permit
+     */
+    public synchronized long getLongRtt(TimeUnit unit) {
+        return unit.convert((long) longRttNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,202 @@
+package com.customer.data.index;
+
+import com.customer.data.entity.Customer;
+import com.customer.data.event.CustomerChangedEvent;
+import com.customer.data.repository.CustomerRepositoryJpa;
+import com.customer.data.service.CustomerShards;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index of all registered customer emails
+ * A Bloom filter answers most lookups for new emails without touching the set, the set holds the exact emails
+ * The index is loaded in the background after startup, until then the lookups are answered by the database
+ * The unique constraint on the email column stays the final guard against concurrent registrations
+ */
+@Component
+public class EmailIndex {
+
+    private static final long MIN_EXPECTED_INSERTIONS = 100_000;
+
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+
+    protected static final Logger logger = LogManager.getLogger();
+
+    private final CustomerRepositoryJpa customerRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Set<String> emails = ConcurrentHashMap.newKeySet();
+
+    private final ReentrantLock resizeLock = new ReentrantLock();
+
+    private volatile BloomFilter bloomFilter = new BloomFilter(MIN_EXPECTED_INSERTIONS, FALSE_POSITIVE_PROBABILITY);
+
+    private final CustomerShards shards;
+
+    private final AtomicBoolean loadStarted = new AtomicBoolean();
+
+    private volatile boolean loaded;
+
+    public EmailIndex(CustomerRepositoryJpa customerRepository, PlatformTransactionManager transactionManager, CustomerShards shards) {
+        this.customerRepository = customerRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shards = shards;
+    }
+
+    /**
+     * Start loading the index in the background once the application is ready, so the startup does not wait for it
+     * The ready event of the reactive context reaches this context too, the index is loaded only once
+     *
+     * @param event - the ready event
+     */
+    @EventListener
+    public void startLoading(ApplicationReadyEvent event) {
+        if (!loadStarted.compareAndSet(false, true)) {
+            return;
+        }
+        Thread loader = new Thread(() -> {
+            try {
+                load();
+            } catch (RuntimeException e) {
+                logger.error("The email index could not be loaded, the emails are verified in database.", e);
+            }
+        }, "email-index-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Load the emails of all customers from database, one shard after the other
+     * The emails of the customers saved meanwhile are added to the new Bloom filter too, so none is lost by the swap
+     * The transaction is not read-only, so with read replicas the index is still loaded from the primary database
+     */
+    public void load() {
+        logger.info("Load the email index.");
+        AtomicLong count = new AtomicLong();
+        shards.forEachShard(shard -> count.addAndGet(transactionTemplate.execute(status -> customerRepository.count())));
+        BloomFilter loading = new BloomFilter(Math.max(MIN_EXPECTED_INSERTIONS, count.get() * 2), FALSE_POSITIVE_PROBABILITY);
+        bloomFilter = loading;
+        emails.forEach(loading::put);
+        shards.forEachShard(shard -> transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<String> registeredEmails = customerRepository.streamAllEmails()) {
+                registeredEmails.forEach(this::add);
+            }
+        }));
+        loaded = true;
+        logger.info("The email index is loaded with {} emails.", emails.size());
+    }
+
+    /**
+     * Verify if the index is loaded, before that the lookups are made in database
+     *
+     * @return true if the emails of all customers are in the index
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Normalize an email for comparisons: surrounding spaces removed and lower case
+     *
+     * @param email - the email
+     * @return the normalized email, null if the email is null or blank
+     */
+    public static String normalize(String email) {
+        return Customer.normalizeEmail(email);
+    }
+
+    /**
+     * Verify if the email is registered, ignoring case
+     * Until the index is loaded, the email is searched in database, on all shards
+     *
+     * @param email - the searched email
+     * @return true if a customer has this email
+     */
+    public boolean contains(String email) {
+        String normalized = normalize(email);
+        if (normalized == null) {
+            return false;
+        }
+        if (!loaded) {
+            return shards.fanOut(shard -> customerRepository.existsByEmailKey(normalized)).contains(true);
+        }
+        return bloomFilter.mightContain(normalized) && emails.contains(normalized);
+    }
+
+    /**
+     * Add an email to the index
+     *
+     * @param email - the registered email
+     */
+    public void add(String email) {
+        String normalized = normalize(email);
+        if (normalized != null && emails.add(normalized)) {
+            bloomFilter.put(normalized);
+            if (emails.size() > bloomFilter.getExpectedInsertions()) {
+                resize();
+            }
+        }
+    }
+
+    /**
+     * Remove an email from the index
+     * The Bloom filter keeps the email, which only costs a lookup in the set for it later
+     *
+     * @param email - the email that is no longer registered
+     */
+    public void remove(String email) {
+        String normalized = normalize(email);
+        if (normalized != null) {
+            emails.remove(normalized);
+        }
+    }
+
+    /**
+     * Keep the index in sync with the committed customers
+     *
+     * @param event - the saved customer with its previous email
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        String email = event.getCustomer().getEmail();
+        if (event.getPreviousEmail() != null && !event.getPreviousEmail().equals(email)) {
+            remove(event.getPreviousEmail());
+        }
+        add(email);
+    }
+
+    /**
+     * Replace the Bloom filter with a larger one built from the set
+     * The set is copied again after the swap, so emails added while the new filter was filled are not lost
+     */
+    private void resize() {
+        if (!resizeLock.tryLock()) {
+            return;
+        }
+        try {
+            if (emails.size() <= bloomFilter.getExpectedInsertions()) {
+                return;
+            }
+            BloomFilter resized = new BloomFilter(emails.size() * 2L, FALSE_POSITIVE_PROBABILITY);
+            emails.forEach(resized::put);
+            bloomFilter = resized;
+            emails.forEach(resized::put);
+        } finally {
+            resizeLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.customer.data.index;
+
+import com.customer.data.event.CustomerChangedEvent;
+import com.customer.data.repository.CustomerName;
+import com.customer.data.repository.CustomerRepositoryJpa;
+import com.customer.data.response.CustomerResponse;
+import com.customer.data.service.CustomerShards;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index of customer first and last names for prefix search
+ * Names are folded to lower case and kept sorted, every name maps to the sorted ids of the customers having it
+ * A search seeks to the first name with the prefix and walks forward until enough customers were found
+ * The index is loaded in the background after startup, until then the searches are answered by the database
+ */
+@Component
+public class NamePrefixIndex {
+
+    private static final long[] NO_IDS = new long[0];
+
+    protected static final Logger logger = LogManager.getLogger();
+
+    private final CustomerRepositoryJpa customerRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ConcurrentSkipListMap<String, long[]> idsByName = new ConcurrentSkipListMap<>();
+
+    private final CustomerShards shards;
+
+    private final AtomicBoolean loadStarted = new AtomicBoolean();
+
+    private volatile boolean loaded;
+
+    public NamePrefixIndex(CustomerRepositoryJpa customerRepository, PlatformTransactionManager transactionManager, CustomerShards shards) {
+        this.customerRepository = customerRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shards = shards;
+    }
+
+    /**
+     * Start loading the index in the background once the application is ready, so the startup does not wait for it
+     * The ready event of the reactive context reaches this context too, the index is loaded only once
+     *
+     * @param event - the ready event
+     */
+    @EventListener
+    public void startLoading(ApplicationReadyEvent event) {
+        if (!loadStarted.compareAndSet(false, true)) {
+            return;
+        }
+        Thread loader = new Thread(() -> {
+            try {
+                load();
+            } catch (RuntimeException e) {
+                logger.error("The name search index could not be loaded, the names are searched in database.", e);
+            }
+        }, "name-index-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Load the names of all customers from database, one shard after the other
+     * The transaction is not read-only, so with read replicas the index is still loaded from the primary database
+     */
+    public void load() {
+        logger.info("Load the name search index.");
+        shards.forEachShard(shard -> transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<CustomerName> names = customerRepository.streamAllNames()) {
+                names.forEach(name -> add(name.id(), name.firstName(), name.lastName()));
+            }
+        }));
+        loaded = true;
+        logger.info("The name search index is loaded with {} distinct names.", idsByName.size());
+    }
+
+    /**
+     * Verify if the index is loaded, before that the searches are made in database
+     *
+     * @return true if the names of all customers are in the index
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Find the ids of customers with the first name or last name starting with the prefix, ignoring case
+     * Until the index is loaded, the first matching customers are read from every shard and searched the same way
+     *
+     * @param prefix - the beginning of the first or last name
+     * @param limit  - the maximum number of ids to return
+     * @return the ids ordered by the matched name and then by id
+     */
+    public List<Long> search(String prefix, int limit) {
+        String folded = fold(prefix);
+        if (!loaded) {
+            return search(findNames(folded, limit), folded, limit);
+        }
+        return search(idsByName, folded, limit);
+    }
+
+    /**
+     * Add a customer to the index
+     *
+     * @param id        - the customer id
+     * @param firstName - the customer first name
+     * @param lastName  - the customer last name
+     */
+    public void add(Long id, String firstName, String lastName) {
+        addName(fold(firstName), id);
+        addName(fold(lastName), id);
+    }
+
+    /**
+     * Keep the index in sync with the committed customers
+     *
+     * @param event - the saved customer
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        CustomerResponse customer = event.getCustomer();
+        add(customer.getId(), customer.getFirstName(), customer.getLastName());
+    }
+
+    private void addName(String name, long id) {
+        addName(idsByName, name, id);
+    }
+
+    /**
+     * Read the customers with a name starting with the prefix from database, the first ones by first name and by last name
+     * Every shard returns its customers in the order of the index, so the first ids of the merged names are the ones of the index
+     *
+     * @param folded - the folded prefix
+     * @param limit  - the maximum number of customers read by first name and by last name on each shard
+     * @return the names of the read customers with their ids
+     */
+    private NavigableMap<String, long[]> findNames(String folded, int limit) {
+        String pattern = folded.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        ConcurrentSkipListMap<String, long[]> found = new ConcurrentSkipListMap<>();
+        for (List<CustomerName> names : shards.fanOut(shard -> {
+            List<CustomerName> byName = new ArrayList<>(customerRepository.findNamesByFirstNameLike(pattern, Limit.of(limit)));
+            byName.addAll(customerRepository.findNamesByLastNameLike(pattern, Limit.of(limit)));
+            return byName;
+        })) {
+            for (CustomerName name : names) {
+                addName(found, fold(name.firstName()), name.id());
+                addName(found, fold(name.lastName()), name.id());
+            }
+        }
+        return found;
+    }
+
+    private static List<Long> search(NavigableMap<String, long[]> idsByName, String folded, int limit) {
+        NavigableMap<String, long[]> matches = idsByName.subMap(folded, true, folded + Character.MAX_VALUE, false);
+        Set<Long> ids = new LinkedHashSet<>();
+        for (long[] nameIds : matches.values()) {
+            for (long id : nameIds) {
+                ids.add(id);
+                if (ids.size() == limit) {
+                    return new ArrayList<>(ids);
+                }
+            }
+        }
+        return new ArrayList<>(ids);
+    }
+
+    private static void addName(ConcurrentNavigableMap<String, long[]> idsByName, String name, long id) {
+        if (name.isEmpty()) {
+            return;
+        }
+        idsByName.compute(name, (key, ids) -> insertSorted(ids == null ? NO_IDS : ids, id));
+    }
+
+    private static long[] insertSorted(long[] ids, long id) {
+        int position = Arrays.binarySearch(ids, id);
+        if (position >= 0) {
+            return ids;
+        }
+        int insertion = -position - 1;
+        long[] result = new long[ids.length + 1];
+        System.arraycopy(ids, 0, result, 0, insertion);
+        result[insertion] = id;
+        System.arraycopy(ids, insertion, result, insertion + 1, ids.length - insertion);
+        return result;
+    }
+
+    private static String fold(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,31 @@
+package com.customer.data.metrics;
+
+/**
+ * The operation run by the current thread, the name of the CustomerController method, used to tag the database metrics
+ */
+public final class CustomerOperation {
+
+    public static final String NONE = "none";
+
+    private static final ThreadLocal<String> currentOperation = new ThreadLocal<>();
+
+    private CustomerOperation() {
+    }
+
+    /**
+     * Get the operation of the current thread
+     *
+     * @return the name of the operation, null outside an operation
+     */
+    public static String current() {
+        return currentOperation.get();
+    }
+
+    public static void set(String operation) {
+        if (operation == null) {
+            currentOperation.remove();
+        } else {
+            currentOperation.set(operation);
+        }
+    }
+}
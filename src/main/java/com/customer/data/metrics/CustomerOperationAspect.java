@@ -0,0 +1,25 @@
+package com.customer.data.metrics;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Set the CustomerController method as the operation of the thread while the method runs
+ */
+@Aspect
+@Component
+public class CustomerOperationAspect {
+
+    @Around("within(com.customer.data.controller.CustomerController) && execution(public * *(..))")
+    public Object runOperation(ProceedingJoinPoint joinPoint) throws Throwable {
+        String previous = CustomerOperation.current();
+        CustomerOperation.set(joinPoint.getSignature().getName());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            CustomerOperation.set(previous);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.customer.data.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.hibernate.BaseSessionEventListener;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate session listener recording the database work of every session, tagged by the operation that used the session:
+ * the time waiting for a JDBC connection, running the statements and flushing, and the number of statements
+ * It replaces the session metrics that Hibernate logs when the statistics are enabled
+ * Hibernate creates a listener for every session, the metrics are registered in the global registry, to which Spring Boot
+ * adds its registries
+ */
+public class SessionMetricsListener extends BaseSessionEventListener {
+
+    public static final String CONNECTION_ACQUIRE_TIMER = "customers.session.connection.acquire";
+
+    public static final String JDBC_TIMER = "customers.session.jdbc";
+
+    public static final String FLUSH_TIMER = "customers.session.flush";
+
+    public static final String STATEMENTS_SUMMARY = "customers.session.statements";
+
+    private String operation;
+
+    private long acquisitionStart;
+
+    private long acquisitionNanos;
+
+    private long jdbcStart;
+
+    private long jdbcNanos;
+
+    private long statements;
+
+    private long flushStart;
+
+    private long flushNanos;
+
+    @Override
+    public void jdbcConnectionAcquisitionStart() {
+        observeOperation();
+        acquisitionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        acquisitionNanos += System.nanoTime() - acquisitionStart;
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        observeOperation();
+        jdbcStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        jdbcNanos += System.nanoTime() - jdbcStart;
+        statements++;
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        observeOperation();
+        jdbcStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        jdbcNanos += System.nanoTime() - jdbcStart;
+        statements++;
+    }
+
+    @Override
+    public void flushStart() {
+        observeOperation();
+        flushStart = System.nanoTime();
+    }
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        flushNanos += System.nanoTime() - flushStart;
+    }
+
+    @Override
+    public void end() {
+        if (statements == 0 && acquisitionNanos == 0) {
+            return;
+        }
+        String tag = operation == null ? CustomerOperation.NONE : operation;
+        Timer.builder(CONNECTION_ACQUIRE_TIMER).tag("operation", tag).register(Metrics.globalRegistry).record(acquisitionNanos, TimeUnit.NANOSECONDS);
+        Timer.builder(JDBC_TIMER).tag("operation", tag).register(Metrics.globalRegistry).record(jdbcNanos, TimeUnit.NANOSECONDS);
+        Timer.builder(FLUSH_TIMER).tag("operation", tag).register(Metrics.globalRegistry).record(flushNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder(STATEMENTS_SUMMARY).tag("operation", tag).register(Metrics.globalRegistry).record(statements);
+    }
+
+    /**
+     * Keep the operation seen by the first database work of the session
+     * The session can be opened before the operation starts and closed after it ends, when the entity manager is kept open for
+     * the whole web request
+     */
+    private void observeOperation() {
+        if (operation == null) {
+            operation = CustomerOperation.current();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.customer.data.reactive;
+
+import com.customer.data.index.NamePrefixIndex;
+import com.customer.data.repository.CustomerView;
+import com.customer.data.response.CustomerResponse;
+import com.customer.data.service.CustomerService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Non-blocking variant of the customer read endpoints
+ * Customers are written to the client as they are read, so a slow reader holds no thread while it is waiting
+ */
+public class CustomerReactiveHandler {
+
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+
+    protected static final Logger logger = LogManager.getLogger();
+
+    private final CustomerReactiveRepository customerRepository;
+
+    private final CustomerService customerService;
+
+    private final NamePrefixIndex nameIndex;
+
+    public CustomerReactiveHandler(CustomerReactiveRepository customerRepository, CustomerService customerService, NamePrefixIndex nameIndex) {
+        this.customerRepository = customerRepository;
+        this.customerService = customerService;
+        this.nameIndex = nameIndex;
+    }
+
+    /**
+     * Stream all customers, as a JSON array or as newline delimited JSON when the client accepts application/x-ndjson
+     *
+     * @param request - the client request
+     * @return all customers ordered by id
+     */
+    public Mono<ServerResponse> retrieveAll(ServerRequest request) {
+        logger.info("Stream all customers.");
+        MediaType mediaType = request.headers().accept().contains(MediaType.APPLICATION_NDJSON)
+                ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON;
+        Flux<CustomerResponse> customers = customerRepository.findAll().map(customerService::createCustomerResponse);
+        return ServerResponse.ok().contentType(mediaType).body(customers, CustomerResponse.class);
+    }
+
+    /**
+     * Get customer by its id
+     *
+     * @param request - the client request, with the id of the searched customer
+     * @return the customer, or the error message that the searched id doesn't exist
+     */
+    public Mono<ServerResponse> retrieveById(ServerRequest request) {
+        Long id;
+        try {
+            id = Long.valueOf(request.pathVariable("id"));
+        } catch (NumberFormatException e) {
+            return badRequest("The customer id is not valid");
+        }
+        logger.info("Get the customer by id: {}", id);
+        return customerRepository.findById(id)
+                .flatMap(customer -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(customerService.createCustomerResponse(customer)))
+                .switchIfEmpty(Mono.defer(() -> {
+                    logger.error("The customer with id {} doesn't exist!", id);
+                    return badRequest("The customer with id " + id + " doesn't exist");
+                }));
+    }
+
+    /**
+     * Get customers by searching after their first name or last name, using the name index of the servlet application
+     *
+     * @param request - the client request, with the beginning of the name and the optional limit
+     * @return the searched customers ordered by the matched name
+     */
+    public Mono<ServerResponse> searchByFirstOrLastName(ServerRequest request) {
+        String name = request.pathVariable("name");
+        int limit;
+        try {
+            limit = request.queryParam("limit").map(Integer::parseInt).orElse(DEFAULT_SEARCH_LIMIT);
+        } catch (NumberFormatException e) {
+            limit = 0;
+        }
+        if (limit < 1 || limit > CustomerService.MAX_SEARCH_LIMIT) {
+            logger.error("The search limit {} is not between 1 and {}!", limit, CustomerService.MAX_SEARCH_LIMIT);
+            return badRequest("Search limit must be between 1 and " + CustomerService.MAX_SEARCH_LIMIT);
+        }
+        logger.info("Search customers with first name or last name starting with: {}", name);
+        int searchLimit = limit;
+        // until the index is loaded, the search reads the database, so it is moved off the event loop
+        Mono<List<Long>> searchedIds = nameIndex.isLoaded() ? Mono.just(nameIndex.search(name, limit))
+                : Mono.fromCallable(() -> nameIndex.search(name, searchLimit)).subscribeOn(Schedulers.boundedElastic());
+        Flux<CustomerResponse> customers = searchedIds.flatMapMany(ids -> customerRepository.findAllById(ids).collectMap(CustomerView::id)
+                .flatMapIterable(customersById -> ids.stream().map(customersById::get).filter(Objects::nonNull)
+                        .map(customerService::createCustomerResponse).toList()));
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).body(customers, CustomerResponse.class);
+    }
+
+    private static Mono<ServerResponse> badRequest(String errorMessage) {
+        return ServerResponse.badRequest().contentType(MediaType.APPLICATION_JSON).bodyValue(Map.of("errorMessage", errorMessage));
+    }
+}
@@ -0,0 +1,89 @@
+package com.customer.data.reactive;
+
+import com.customer.data.repository.CustomerView;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Non-blocking reads of the customer and address tables created by the JPA entities
+ * The rows are mapped to the same CustomerView projection used by the servlet read path
+ * The embedded H2 engine runs the queries on the thread that requests the rows, so they are requested from the
+ * bounded elastic scheduler instead of the Netty event loop
+ */
+public class CustomerReactiveRepository {
+
+    private static final String SELECT_CUSTOMER_VIEW = "select c.id, c.first_name, c.last_name, c.email, c.age, c.created_on, c.last_updated_on, "
+            + "a.id as address_id, a.country, a.city, a.street, a.house_number, a.postal_code "
+            + "from customer c left join address a on a.id = c.address_id";
+
+    private static final int PAGE_SIZE = 500;
+
+    private final DatabaseClient databaseClient;
+
+    public CustomerReactiveRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Stream all customers ordered by id, reading the next page from the database only when the subscriber requests it
+     * Every page is a short query, so a slow subscriber doesn't keep a connection from the pool
+     *
+     * @return all customers
+     */
+    public Flux<CustomerView> findAll() {
+        return findPageAfterId(0L)
+                .expand(page -> page.size() < PAGE_SIZE ? Mono.empty() : findPageAfterId(page.get(page.size() - 1).id()))
+                .concatMapIterable(page -> page, 1);
+    }
+
+    private Mono<List<CustomerView>> findPageAfterId(long id) {
+        return databaseClient.sql(SELECT_CUSTOMER_VIEW + " where c.id > :id order by c.id limit " + PAGE_SIZE).bind("id", id)
+                .map(CustomerReactiveRepository::toView).all().collectList()
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Find a customer by its id
+     *
+     * @param id - id for the searched customer
+     * @return the customer, empty if it doesn't exist
+     */
+    public Mono<CustomerView> findById(Long id) {
+        return databaseClient.sql(SELECT_CUSTOMER_VIEW + " where c.id = :id").bind("id", id)
+                .map(CustomerReactiveRepository::toView).one()
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Find the customers with the given ids, in no particular order
+     *
+     * @param ids - ids for the searched customers
+     * @return the found customers
+     */
+    public Flux<CustomerView> findAllById(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+        return databaseClient.sql(SELECT_CUSTOMER_VIEW + " where c.id in (:ids)").bind("ids", ids)
+                .map(CustomerReactiveRepository::toView).all()
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static CustomerView toView(Readable row) {
+        OffsetDateTime createdOn = row.get("created_on", OffsetDateTime.class);
+        OffsetDateTime lastUpdatedOn = row.get("last_updated_on", OffsetDateTime.class);
+        return new CustomerView(row.get("id", Long.class), row.get("first_name", String.class), row.get("last_name", String.class),
+                row.get("email", String.class), row.get("age", LocalDate.class),
+                createdOn == null ? null : createdOn.toInstant(), lastUpdatedOn == null ? null : lastUpdatedOn.toInstant(),
+                row.get("address_id", Long.class), row.get("country", String.class), row.get("city", String.class),
+                row.get("street", String.class), row.get("house_number", String.class), row.get("postal_code", String.class));
+    }
+}
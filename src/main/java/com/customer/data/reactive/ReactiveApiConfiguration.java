@@ -0,0 +1,76 @@
+package com.customer.data.reactive;
+
+import com.customer.data.index.NamePrefixIndex;
+import com.customer.data.service.CustomerService;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * Beans of the reactive read API child context, started by ReactiveApiLauncher
+ * It is not a @Configuration, so the component scan of the servlet application doesn't register it
+ * Only the R2DBC auto-configuration is applied, the JPA and servlet beans are used from the parent context
+ * The WebFlux configuration can't be enabled next to the Spring MVC configuration of the parent context,
+ * so the routes are served by an HttpHandler built directly from the router function
+ */
+@ImportAutoConfiguration(R2dbcAutoConfiguration.class)
+public class ReactiveApiConfiguration {
+
+    /**
+     * Netty event loop server, the server properties of the parent context configure only the servlet server
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(Environment environment) {
+        return new NettyReactiveWebServerFactory(environment.getProperty("customers.reactive.port", Integer.class, 8081));
+    }
+
+    @Bean
+    public DatabaseClient databaseClient(ConnectionFactory connectionFactory) {
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    @Bean
+    public CustomerReactiveRepository customerReactiveRepository(DatabaseClient databaseClient) {
+        return new CustomerReactiveRepository(databaseClient);
+    }
+
+    @Bean
+    public CustomerReactiveHandler customerReactiveHandler(CustomerReactiveRepository customerReactiveRepository, CustomerService customerService,
+                                                           NamePrefixIndex nameIndex) {
+        return new CustomerReactiveHandler(customerReactiveRepository, customerService, nameIndex);
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> customerRoutes(CustomerReactiveHandler handler) {
+        return route(GET("/api/v1/customers"), handler::retrieveAll)
+                .andRoute(GET("/api/v1/customers/name/{name}"), handler::searchByFirstOrLastName)
+                .andRoute(GET("/api/v1/customers/{id}"), handler::retrieveById);
+    }
+
+    /**
+     * Serve the routes with the JSON codecs using the ObjectMapper of the servlet application
+     */
+    @Bean
+    public HttpHandler httpHandler(RouterFunction<ServerResponse> customerRoutes, ObjectMapper objectMapper) {
+        HandlerStrategies strategies = HandlerStrategies.builder().codecs(configurer -> {
+            configurer.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+            configurer.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+        }).build();
+        return RouterFunctions.toHttpHandler(customerRoutes, strategies);
+    }
+}
@@ -0,0 +1,64 @@
+package com.customer.data.reactive;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Start the reactive read API in a child context, with its own Netty server on the customers.reactive.port
+ * The child context is closed together with the servlet application
+ */
+@Component
+@ConditionalOnProperty(name = "customers.reactive.enabled", havingValue = "true")
+public class ReactiveApiLauncher {
+
+    protected static final Logger logger = LogManager.getLogger();
+
+    private final ConfigurableApplicationContext applicationContext;
+
+    private volatile ConfigurableApplicationContext reactiveContext;
+
+    public ReactiveApiLauncher(ConfigurableApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+    }
+
+    /**
+     * Start the child context once the servlet application is ready
+     *
+     * @param event - the ready event, also received from the child context itself
+     */
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        if (event.getApplicationContext() != applicationContext || reactiveContext != null) {
+            return;
+        }
+        reactiveContext = new SpringApplicationBuilder(ReactiveApiConfiguration.class)
+                .parent(applicationContext)
+                .profiles(applicationContext.getEnvironment().getActiveProfiles())
+                .web(WebApplicationType.REACTIVE)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .run();
+        logger.info("The reactive read API is listening on port {}.", getPort());
+    }
+
+    /**
+     * Get the port of the reactive read API
+     *
+     * @return the port the Netty server is listening on, -1 if it is not started
+     */
+    public int getPort() {
+        if (reactiveContext instanceof WebServerApplicationContext webServerContext) {
+            return webServerContext.getWebServer().getPort();
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,26 @@
+package com.customer.data.repository;
+
+import com.customer.data.entity.CustomerEmail;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface CustomerEmailRepositoryJpa extends JpaRepository<CustomerEmail, String> {
+
+    @Modifying
+    @Query(value = "insert into customer_email (email, customer_id, reserved_on) values (:email, :customerId, :reservedOn)", nativeQuery = true)
+    void insert(String email, Long customerId, Instant reservedOn);
+
+    @Modifying
+    @Query("update CustomerEmail e set e.customerId = :customerId, e.reservedOn = :reservedOn"
+            + " where e.email = :email and e.customerId = :previousCustomerId")
+    int takeOver(String email, Long previousCustomerId, Long customerId, Instant reservedOn);
+
+    @Modifying
+    @Query("delete from CustomerEmail e where e.email = :email and e.customerId = :customerId")
+    int release(String email, Long customerId);
+}
@@ -0,0 +1,7 @@
+package com.customer.data.repository;
+
+/**
+ * Id and names of a customer, used to load the name search index without loading whole customers
+ */
+public record CustomerName(Long id, String firstName, String lastName) {
+}
@@ -1,15 +1,88 @@
 package com.customer.data.repository;
 
 import com.customer.data.entity.Customer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CustomerRepositoryJpa extends JpaRepository<Customer, Long> {
+
+    String SELECT_CUSTOMER_VIEW = "select new com.customer.data.repository.CustomerView(c.id, c.firstName, c.lastName, c.email, c.age, "
+            + "c.createdOn, c.lastUpdatedOn, a.id, a.country, a.city, a.street, a.houseNumber, a.postalCode) "
+            + "from Customer c left join c.currentLivingAddress a";
+
+    String ADDRESS = "currentLivingAddress";
+
+    @Override
+    @EntityGraph(attributePaths = ADDRESS)
+    List<Customer> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = ADDRESS)
+    List<Customer> findAllById(Iterable<Long> ids);
+
+    @EntityGraph(attributePaths = ADDRESS)
     Optional<Customer> findById(Long id);
+
+    @EntityGraph(attributePaths = ADDRESS)
     List<Customer> findByEmail(String email);
+
+    boolean existsByEmailKey(String emailKey);
+
+    @EntityGraph(attributePaths = ADDRESS)
     List<Customer> findByFirstNameStartsWithIgnoreCaseOrLastNameStartsWithIgnoreCase(String firstName, String lastName);
+
+    @Query(SELECT_CUSTOMER_VIEW + " order by c.id")
+    List<CustomerView> findAllViews();
+
+    @Query(SELECT_CUSTOMER_VIEW + " where c.id > :id order by c.id")
+    List<CustomerView> findViewsAfterId(Long id, Limit limit);
+
+    @Query(SELECT_CUSTOMER_VIEW + " where c.id = :id")
+    Optional<CustomerView> findViewById(Long id);
+
+    @Query(SELECT_CUSTOMER_VIEW + " where c.id in :ids")
+    List<CustomerView> findViewsByIdIn(Collection<Long> ids);
+
+    @Query(SELECT_CUSTOMER_VIEW + " where c.lastUpdatedOn >= :lastUpdatedOn and (c.lastUpdatedOn > :lastUpdatedOn or c.id > :id)"
+            + " and c.lastUpdatedOn <= :until order by c.lastUpdatedOn, c.id")
+    List<CustomerView> findViewsChangedAfter(Instant lastUpdatedOn, Long id, Instant until, Limit limit);
+
+    @Query("select new com.customer.data.repository.CustomerTableVersion(count(c), max(c.lastUpdatedOn)) from Customer c")
+    CustomerTableVersion findTableVersion();
+
+    @Query("select c.lastUpdatedOn from Customer c where c.id = :id")
+    Optional<Instant> findLastUpdatedOnById(Long id);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select c.email from Customer c where c.email is not null")
+    Stream<String> streamAllEmails();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.customer.data.repository.CustomerName(c.id, c.firstName, c.lastName) from Customer c")
+    Stream<CustomerName> streamAllNames();
+
+    @Query("select new com.customer.data.repository.CustomerName(c.id, c.firstName, c.lastName) from Customer c "
+            + "where lower(trim(c.firstName)) like :prefix escape '\\' order by lower(trim(c.firstName)), c.id")
+    List<CustomerName> findNamesByFirstNameLike(String prefix, Limit limit);
+
+    @Query("select new com.customer.data.repository.CustomerName(c.id, c.firstName, c.lastName) from Customer c "
+            + "where lower(trim(c.lastName)) like :prefix escape '\\' order by lower(trim(c.lastName)), c.id")
+    List<CustomerName> findNamesByLastNameLike(String prefix, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_CUSTOMER_VIEW + " order by c.id")
+    Stream<CustomerView> streamAllViews();
 }
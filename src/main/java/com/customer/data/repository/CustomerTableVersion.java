@@ -0,0 +1,9 @@
+package com.customer.data.repository;
+
+import java.time.Instant;
+
+/**
+ * Number of customers and time of the last create or update, used as the version of the customer lists
+ */
+public record CustomerTableVersion(Long count, Instant lastUpdatedOn) {
+}
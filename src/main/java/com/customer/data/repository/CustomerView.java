@@ -0,0 +1,13 @@
+package com.customer.data.repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Columns of a customer and of its living address, selected by the read queries and mapped straight to the response
+ * The address columns are null when the customer has no living address
+ */
+public record CustomerView(Long id, String firstName, String lastName, String email, LocalDate birthDate,
+                           Instant createdOn, Instant lastUpdatedOn, Long addressId, String country, String city,
+                           String street, String houseNumber, String postalCode) {
+}
@@ -1,14 +1,15 @@
 package com.customer.data.request;
 
+import com.customer.data.validation.IsoDateValidator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.*;
 import lombok.*;
 
 import java.io.Serializable;
+import java.time.LocalDate;
 
-@Builder
 @Getter
-@AllArgsConstructor
 @NoArgsConstructor
 public class CreateCustomerRequest implements Serializable {
 
@@ -25,4 +26,29 @@ public class CreateCustomerRequest implements Serializable {
 
     @Valid
     private AddressRequest currentLivingAddress;
+
+    @Getter(AccessLevel.NONE)
+    private transient LocalDate parsedBirthDate;
+
+    @Builder
+    public CreateCustomerRequest(String firstName, String lastName, String email, String birthDate, AddressRequest currentLivingAddress) {
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.birthDate = birthDate;
+        this.currentLivingAddress = currentLivingAddress;
+    }
+
+    /**
+     * Get the birth date parsed from the yyyy-MM-dd text, the text is parsed only once for the validation and the service
+     *
+     * @return the birth date, null if it is missing or not a valid yyyy-MM-dd date
+     */
+    @JsonIgnore
+    public LocalDate getBirthLocalDate() {
+        if (parsedBirthDate == null) {
+            parsedBirthDate = IsoDateValidator.parse(birthDate);
+        }
+        return parsedBirthDate;
+    }
 }
@@ -0,0 +1,24 @@
+package com.customer.data.response;
+
+import lombok.*;
+
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchCustomerResponse {
+
+    public enum Status {
+        CREATED,
+        FAILED
+    }
+
+    private int index;
+
+    private Status status;
+
+    private CustomerResponse customer;
+
+    private String errorMessage;
+}
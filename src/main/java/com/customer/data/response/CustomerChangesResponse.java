@@ -0,0 +1,19 @@
+package com.customer.data.response;
+
+import lombok.*;
+
+import java.util.List;
+
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CustomerChangesResponse {
+
+    private List<CustomerResponse> customers;
+
+    private String nextToken;
+
+    private boolean hasMore;
+}
@@ -0,0 +1,17 @@
+package com.customer.data.response;
+
+import lombok.*;
+
+import java.util.List;
+
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CustomerPageResponse {
+
+    private List<CustomerResponse> customers;
+
+    private String nextCursor;
+}
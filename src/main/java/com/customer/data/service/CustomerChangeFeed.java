@@ -0,0 +1,75 @@
+package com.customer.data.service;
+
+import com.customer.data.exception.CustomerValidationException;
+import com.customer.data.repository.CustomerRepositoryJpa;
+import com.customer.data.repository.CustomerView;
+import com.customer.data.response.CustomerChangesResponse;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Incremental feed of the created and updated customers, ordered by (lastUpdatedOn, id)
+ * The last update time is taken when the customer is flushed, before its transaction commits, so a slow transaction can
+ * commit a time older than customers already returned; the feed only returns the customers updated before the settle
+ * window, so those transactions are committed before the feed reaches their time
+ * With shards, the changes of every shard are read in parallel and merged in the same order
+ */
+@Service
+public class CustomerChangeFeed {
+
+    protected static final Logger logger = LogManager.getLogger();
+
+    private static final Comparator<CustomerView> BY_CHANGE = Comparator.comparing(CustomerView::lastUpdatedOn).thenComparing(CustomerView::id);
+
+    private final CustomerRepositoryJpa customerRepository;
+
+    private final CustomerService customerService;
+
+    private final Duration settleWindow;
+
+    private final CustomerShards shards;
+
+    public CustomerChangeFeed(CustomerRepositoryJpa customerRepository, CustomerService customerService,
+                              @Value("${customers.changes.settle-window:5s}") Duration settleWindow, CustomerShards shards) {
+        this.customerRepository = customerRepository;
+        this.customerService = customerService;
+        this.settleWindow = settleWindow;
+        this.shards = shards;
+    }
+
+    /**
+     * Get the customers created or updated after the watermark of the token
+     *
+     * @param token - the token returned with the previous changes, null or empty to start from the first customer
+     * @param size  - the maximum number of customers to return
+     * @return the changed customers and the token to ask for the next changes, also returned when there is no change
+     * @throws CustomerValidationException the error message if the token or the size is not valid
+     */
+    @Transactional(readOnly = true)
+    public CustomerChangesResponse getChanges(String token, int size) throws CustomerValidationException {
+        CustomerService.validatePageSize(size);
+        CustomerChangeToken since = CustomerChangeToken.decode(token);
+        Instant until = Instant.now().minus(settleWindow);
+        logger.info("Getting {} changed customers after {} with id: {}", size, since.lastUpdatedOn(), since.id());
+        List<CustomerView> customerList = CustomerShards.mergeSorted(shards.fanOut(shard ->
+                customerRepository.findViewsChangedAfter(since.lastUpdatedOn(), since.id(), until, Limit.of(size + 1))), BY_CHANGE, size + 1);
+
+        boolean hasMore = customerList.size() > size;
+        List<CustomerView> changes = hasMore ? customerList.subList(0, size) : customerList;
+        CustomerChangeToken next = changes.isEmpty() ? since
+                : new CustomerChangeToken(changes.get(changes.size() - 1).lastUpdatedOn(), changes.get(changes.size() - 1).id());
+        logger.debug("Send {} changed customers to client.", changes.size());
+        return CustomerChangesResponse.builder().customers(changes.stream().map(customerService::createCustomerResponse).collect(Collectors.toList()))
+                .nextToken(next.encode()).hasMore(hasMore).build();
+    }
+}
@@ -0,0 +1,60 @@
+package com.customer.data.service;
+
+import com.customer.data.exception.CustomerValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Opaque watermark of the change feed: the last update time and the id of the last returned customer
+ *
+ * @param lastUpdatedOn - the last update time of the last returned customer
+ * @param id            - the id of the last returned customer
+ */
+public record CustomerChangeToken(Instant lastUpdatedOn, long id) {
+
+    /**
+     * The watermark before any customer
+     */
+    public static final CustomerChangeToken START = new CustomerChangeToken(Instant.EPOCH, 0L);
+
+    private static final String PREFIX = "changes:";
+
+    /**
+     * Encode the watermark as a token
+     *
+     * @return the opaque token
+     */
+    public String encode() {
+        String value = PREFIX + lastUpdatedOn.getEpochSecond() + "." + lastUpdatedOn.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Decode a token received from a client
+     *
+     * @param token - the opaque token, null or empty to start from the first customer
+     * @return the watermark after which the changes are returned
+     * @throws CustomerValidationException the error message that the token is not valid
+     */
+    public static CustomerChangeToken decode(String token) throws CustomerValidationException {
+        if (token == null || token.isEmpty()) {
+            return START;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+            if (value.startsWith(PREFIX)) {
+                String[] timeAndId = value.substring(PREFIX.length()).split(":");
+                String[] secondsAndNanos = timeAndId[0].split("\\.");
+                if (timeAndId.length == 2 && secondsAndNanos.length == 2) {
+                    return new CustomerChangeToken(Instant.ofEpochSecond(Long.parseLong(secondsAndNanos[0]), Long.parseLong(secondsAndNanos[1])),
+                            Long.parseLong(timeAndId[1]));
+                }
+            }
+        } catch (RuntimeException e) {
+            // falls through to the validation error below
+        }
+        throw new CustomerValidationException("The change token is not valid!");
+    }
+}
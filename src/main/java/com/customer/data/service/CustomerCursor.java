@@ -0,0 +1,49 @@
+package com.customer.data.service;
+
+import com.customer.data.exception.CustomerValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque cursor used for keyset pagination over the customer id
+ */
+public final class CustomerCursor {
+
+    private static final String PREFIX = "id:";
+
+    private CustomerCursor() {
+    }
+
+    /**
+     * Encode the id of the last customer from a page as a cursor
+     *
+     * @param lastId - the id of the last customer returned to the client
+     * @return the opaque cursor
+     */
+    public static String encode(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((PREFIX + lastId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Decode a cursor received from a client
+     *
+     * @param cursor - the opaque cursor, null or empty for the first page
+     * @return the id after which the next page starts
+     * @throws CustomerValidationException the error message that the cursor is not valid
+     */
+    public static long decode(String cursor) throws CustomerValidationException {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0L;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            if (value.startsWith(PREFIX)) {
+                return Long.parseLong(value.substring(PREFIX.length()));
+            }
+        } catch (IllegalArgumentException e) {
+            // falls through to the validation error below
+        }
+        throw new CustomerValidationException("The cursor is not valid!");
+    }
+}
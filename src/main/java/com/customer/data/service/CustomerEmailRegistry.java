@@ -0,0 +1,150 @@
+package com.customer.data.service;
+
+import com.customer.data.entity.CustomerEmail;
+import com.customer.data.exception.CustomerValidationException;
+import com.customer.data.index.EmailIndex;
+import com.customer.data.repository.CustomerEmailRepositoryJpa;
+import com.customer.data.repository.CustomerRepositoryJpa;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Unique emails across the shards: every email is owned by one shard, chosen by the hash of the email, where a
+ * customer_email row with the email as primary key names the customer holding it
+ * The row is written in its own transaction while the customer is saved, before the customer commits, and removed if the
+ * customer does not commit; a row left by a stopped instance is taken over after the grace period, once its customer is
+ * known not to hold the email
+ * Without shards the unique constraint of the customer table is enough and nothing is written
+ */
+@Component
+public class CustomerEmailRegistry {
+
+    protected static final Logger logger = LogManager.getLogger();
+
+    private final CustomerEmailRepositoryJpa emailRepository;
+
+    private final CustomerRepositoryJpa customerRepository;
+
+    private final CustomerShards shards;
+
+    private final Duration grace;
+
+    public CustomerEmailRegistry(CustomerEmailRepositoryJpa emailRepository, CustomerRepositoryJpa customerRepository, CustomerShards shards,
+                                 @Value("${customers.shards.email-reservation-grace:1m}") Duration grace) {
+        this.emailRepository = emailRepository;
+        this.customerRepository = customerRepository;
+        this.shards = shards;
+        this.grace = grace;
+    }
+
+    /**
+     * Register the email of a customer saved in the current transaction
+     * Must be called inside the transaction, after the customer got its id
+     *
+     * @param email      - the email of the customer, ignored if null or blank
+     * @param customerId - the id of the customer
+     * @throws CustomerValidationException the error message that the email already exists, the transaction must be rolled back
+     */
+    public void register(String email, Long customerId) throws CustomerValidationException {
+        String normalized = EmailIndex.normalize(email);
+        if (!shards.isSharded() || normalized == null) {
+            return;
+        }
+        int owner = ownerOf(normalized);
+        CustomerEmail holder;
+        try {
+            holder = shards.inTransaction(owner, () -> reserve(normalized, customerId));
+        } catch (DataIntegrityViolationException e) {
+            throw alreadyExists();
+        }
+        if (holder != null) {
+            if (holder.getCustomerId().equals(customerId)) {
+                return;
+            }
+            if (!isAbandoned(holder) || shards.inTransaction(owner,
+                    () -> emailRepository.takeOver(normalized, holder.getCustomerId(), customerId, Instant.now())) == 0) {
+                throw alreadyExists();
+            }
+            logger.warn("The email reservation of customer {} was abandoned, it is taken over by customer {}.", holder.getCustomerId(), customerId);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    release(normalized, customerId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Release the previous email of a customer once the current transaction commits
+     *
+     * @param email      - the previous email of the customer, ignored if null or blank
+     * @param customerId - the id of the customer
+     */
+    public void releaseAfterCommit(String email, Long customerId) {
+        String normalized = EmailIndex.normalize(email);
+        if (!shards.isSharded() || normalized == null) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                release(normalized, customerId);
+            }
+        });
+    }
+
+    private int ownerOf(String normalized) {
+        return Math.floorMod(normalized.hashCode(), shards.getShardCount());
+    }
+
+    /**
+     * Reserve the email for the customer
+     *
+     * @return null if the email is reserved, otherwise the reservation holding it
+     */
+    private CustomerEmail reserve(String normalized, Long customerId) {
+        CustomerEmail holder = emailRepository.findById(normalized).orElse(null);
+        if (holder == null) {
+            // an insert, not a merge, so a reservation committed meanwhile by another customer fails the primary key
+            emailRepository.insert(normalized, customerId, Instant.now());
+        }
+        return holder;
+    }
+
+    /**
+     * Verify if a reservation is left by a customer that never committed: older than the grace period, so the transaction
+     * saving its customer is over, and its customer does not have the email
+     */
+    private boolean isAbandoned(CustomerEmail holder) {
+        if (holder.getReservedOn().isAfter(Instant.now().minus(grace))) {
+            return false;
+        }
+        int shard = shards.shardOf(holder.getCustomerId());
+        return shard < 0 || !shards.inTransaction(shard, () -> customerRepository.findById(holder.getCustomerId())
+                .map(customer -> holder.getEmail().equals(EmailIndex.normalize(customer.getEmail()))).orElse(false));
+    }
+
+    private void release(String normalized, Long customerId) {
+        try {
+            shards.inTransaction(ownerOf(normalized), () -> emailRepository.release(normalized, customerId));
+        } catch (RuntimeException e) {
+            logger.warn("The email reservation of customer {} could not be released, it is taken over after {}: {}", customerId, grace, e.getMessage());
+        }
+    }
+
+    private static CustomerValidationException alreadyExists() {
+        logger.error("The email is already registered in database!");
+        return new CustomerValidationException("This email already exists!");
+    }
+}
@@ -0,0 +1,208 @@
+package com.customer.data.service;
+
+import com.customer.data.config.CachingConfig;
+import com.customer.data.datasource.ReadYourWrites;
+import com.customer.data.exception.CustomerValidationException;
+import com.customer.data.request.CreateCustomerRequest;
+import com.customer.data.response.BatchCustomerResponse;
+import com.customer.data.response.CustomerResponse;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Save the customers created by concurrent requests together, in one transaction and one JDBC batch
+ * A single committer thread takes the waiting customers, up to the batch size and waiting at most the window for more,
+ * and saves them with {@link CustomerService#addCustomers}, so a customer failing the validation fails alone;
+ * if the whole batch fails, for example on an email registered at the same time by another request, every customer of
+ * the batch is saved again on its own
+ * The saved customers are put in the customers cache, as {@link CustomerService#addCustomer} does
+ * An error of the committer fails the customers of its batch; an error of the virtual machine also stops the group commit,
+ * so the next customers fail at once instead of waiting for a thread that is gone
+ */
+@Component
+@ConditionalOnProperty(name = "customers.group-commit.enabled", havingValue = "true")
+public class CustomerGroupCommit {
+
+    protected static final Logger logger = LogManager.getLogger();
+
+    private final CustomerService customerService;
+
+    private final int maxBatchSize;
+
+    private final long windowNanos;
+
+    private final long timeoutNanos;
+
+    private final Cache customersCache;
+
+    private final DistributionSummary batchSizes;
+
+    private final BlockingQueue<PendingCustomer> queue = new LinkedBlockingQueue<>();
+
+    private final Thread committer;
+
+    private volatile boolean running = true;
+
+    public CustomerGroupCommit(CustomerService customerService, MeterRegistry meterRegistry, CacheManager cacheManager,
+                               @Value("${customers.group-commit.max-batch-size:100}") int maxBatchSize,
+                               @Value("${customers.group-commit.window:1ms}") Duration window,
+                               @Value("${customers.group-commit.timeout:30s}") Duration timeout) {
+        this.customerService = customerService;
+        this.maxBatchSize = maxBatchSize;
+        this.windowNanos = window.toNanos();
+        this.timeoutNanos = timeout.toNanos();
+        this.customersCache = cacheManager.getCache(CachingConfig.CUSTOMERS_CACHE);
+        this.batchSizes = DistributionSummary.builder("customers.group.commit.size")
+                .description("Customers saved by one group commit").register(meterRegistry);
+        this.committer = new Thread(this::run, "customer-group-commit");
+        this.committer.setDaemon(true);
+        this.committer.start();
+    }
+
+    /**
+     * Add a new customer in database with the customers added at the same time by other requests
+     *
+     * @param createCustomerRequest - the customer to be saved in database
+     * @return the saved customer
+     * @throws CustomerValidationException the error message if the customer can't be saved, as returned by {@link CustomerService#addCustomer}
+     * @throws IllegalStateException if the group commit is stopped or does not answer within the timeout
+     */
+    public CustomerResponse addCustomer(CreateCustomerRequest createCustomerRequest) throws CustomerValidationException {
+        if (!running) {
+            throw new IllegalStateException("The group commit is stopped");
+        }
+        PendingCustomer pending = new PendingCustomer(createCustomerRequest, new CompletableFuture<>());
+        queue.add(pending);
+        if (!running && queue.remove(pending)) {
+            throw new IllegalStateException("The group commit is stopped");
+        }
+        try {
+            CustomerResponse response = pending.result().get(timeoutNanos, TimeUnit.NANOSECONDS);
+            // committed by the committer thread, the read-your-writes token of the request is taken from here
+            ReadYourWrites.recordCommit();
+            return response;
+        } catch (TimeoutException e) {
+            if (queue.remove(pending)) {
+                throw new IllegalStateException("The group commit did not take the customer in time, it is not saved");
+            }
+            throw new IllegalStateException("The group commit did not answer in time, the customer may be saved");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the group commit", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof CustomerValidationException validationException) {
+                throw validationException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        committer.interrupt();
+        failQueued();
+    }
+
+    private void run() {
+        try {
+            commitBatches();
+        } finally {
+            running = false;
+            failQueued();
+        }
+    }
+
+    private void commitBatches() {
+        List<PendingCustomer> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, maxBatchSize - batch.size());
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatchSize) {
+                    PendingCustomer next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                commit(batch);
+            } catch (InterruptedException e) {
+                batch.forEach(pending -> pending.result().completeExceptionally(new IllegalStateException("The group commit is stopped")));
+                return;
+            } catch (Throwable e) {
+                logger.error("The group commit of {} customers failed.", batch.size(), e);
+                batch.forEach(pending -> pending.result().completeExceptionally(new IllegalStateException("The group commit failed", e)));
+                if (e instanceof VirtualMachineError virtualMachineError) {
+                    throw virtualMachineError;
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<PendingCustomer> batch) {
+        batchSizes.record(batch.size());
+        Map<Integer, CreateCustomerRequest> requests = new LinkedHashMap<>();
+        for (int index = 0; index < batch.size(); index++) {
+            requests.put(index, batch.get(index).request());
+        }
+        try {
+            for (BatchCustomerResponse result : customerService.addCustomers(requests)) {
+                CompletableFuture<CustomerResponse> future = batch.get(result.getIndex()).result();
+                if (result.getStatus() == BatchCustomerResponse.Status.CREATED) {
+                    if (customersCache != null) {
+                        customersCache.put(result.getCustomer().getId(), result.getCustomer());
+                    }
+                    future.complete(result.getCustomer());
+                } else {
+                    future.completeExceptionally(new CustomerValidationException(result.getErrorMessage()));
+                }
+            }
+        } catch (CustomerValidationException | RuntimeException e) {
+            logger.warn("The group commit of {} customers failed, save them one by one: {}", batch.size(), e.getMessage());
+            for (PendingCustomer pending : batch) {
+                try {
+                    pending.result().complete(customerService.addCustomer(pending.request()));
+                } catch (CustomerValidationException | RuntimeException customerException) {
+                    pending.result().completeExceptionally(customerException);
+                }
+            }
+        }
+    }
+
+    private void failQueued() {
+        PendingCustomer pending;
+        while ((pending = queue.poll()) != null) {
+            pending.result().completeExceptionally(new IllegalStateException("The group commit is stopped"));
+        }
+    }
+
+    private record PendingCustomer(CreateCustomerRequest request, CompletableFuture<CustomerResponse> result) {
+    }
+}
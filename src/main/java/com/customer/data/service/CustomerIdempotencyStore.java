@@ -0,0 +1,142 @@
+package com.customer.data.service;
+
+import com.customer.data.exception.CustomerValidationException;
+import com.customer.data.request.AddressRequest;
+import com.customer.data.request.CreateCustomerRequest;
+import com.customer.data.response.CustomerResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Recent Idempotency-Key values of the customer creations, with their result
+ * The first request with a key saves the customer, a repeated or concurrent request with the same key waits for that
+ * result and gets it again without touching the database; a validation error is kept like a created customer,
+ * any other error is forgotten so the client can retry
+ * A concurrent request waits for the result up to the wait timeout, then fails while the first request goes on
+ * The keys are kept in memory for the time to live, only the last maximum-size keys are kept
+ */
+@Component
+public class CustomerIdempotencyStore {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    protected static final Logger logger = LogManager.getLogger();
+
+    private final Cache<String, Creation> creations;
+
+    private final long waitTimeoutNanos;
+
+    public CustomerIdempotencyStore(MeterRegistry meterRegistry,
+                                    @Value("${customers.idempotency.maximum-size:100000}") long maximumSize,
+                                    @Value("${customers.idempotency.ttl:24h}") Duration timeToLive,
+                                    @Value("${customers.idempotency.wait-timeout:30s}") Duration waitTimeout) {
+        this.waitTimeoutNanos = waitTimeout.toNanos();
+        this.creations = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(timeToLive).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, creations, "idempotency");
+    }
+
+    /**
+     * A customer creation that can fail with a validation error
+     */
+    @FunctionalInterface
+    public interface CustomerCreation {
+
+        CustomerResponse create() throws CustomerValidationException;
+    }
+
+    /**
+     * The saved customer and whether it was saved by an earlier request with the same key
+     *
+     * @param customer - the saved customer
+     * @param replayed - true if the customer is the result of an earlier request
+     */
+    public record Result(CustomerResponse customer, boolean replayed) {
+    }
+
+    /**
+     * Save the customer once for the key
+     *
+     * @param key      - the Idempotency-Key sent by the client
+     * @param request  - the customer to be saved, a repeated key must come with the same customer
+     * @param creation - the creation of the customer, called only by the first request with the key
+     * @return the saved customer
+     * @throws CustomerValidationException the error message of the creation, or if the key is not valid or was used for another customer
+     */
+    public Result createOnce(String key, CreateCustomerRequest request, CustomerCreation creation) throws CustomerValidationException {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            logger.error("The idempotency key is empty or longer than {} characters!", MAX_KEY_LENGTH);
+            throw new CustomerValidationException("Idempotency-Key must have between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        Creation creationForKey = new Creation(Fingerprint.of(request), new CompletableFuture<>());
+        Creation existing = creations.asMap().putIfAbsent(key, creationForKey);
+        if (existing != null) {
+            if (!existing.fingerprint().equals(creationForKey.fingerprint())) {
+                logger.error("The idempotency key was already used for another customer!");
+                throw new CustomerValidationException("Idempotency-Key was already used for another customer");
+            }
+            logger.debug("Return the customer saved for the idempotency key.");
+            return new Result(await(existing.result()), true);
+        }
+        try {
+            CustomerResponse customer = creation.create();
+            creationForKey.result().complete(customer);
+            return new Result(customer, false);
+        } catch (CustomerValidationException e) {
+            creationForKey.result().completeExceptionally(e);
+            throw e;
+        } catch (Throwable e) {
+            creations.asMap().remove(key, creationForKey);
+            creationForKey.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private CustomerResponse await(CompletableFuture<CustomerResponse> result) throws CustomerValidationException {
+        try {
+            return result.get(waitTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("The customer with the same idempotency key is still being saved, retry later");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the customer with the same idempotency key", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof CustomerValidationException validationException) {
+                throw new CustomerValidationException(validationException.getMessage());
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private record Creation(Fingerprint fingerprint, CompletableFuture<CustomerResponse> result) {
+    }
+
+    /**
+     * The fields of a customer request, compared to detect a key reused for another customer
+     */
+    private record Fingerprint(String firstName, String lastName, String email, String birthDate, String country, String city,
+                               String street, String houseNumber, String postalCode) {
+
+        static Fingerprint of(CreateCustomerRequest request) {
+            AddressRequest address = request.getCurrentLivingAddress();
+            return address == null
+                    ? new Fingerprint(request.getFirstName(), request.getLastName(), request.getEmail(), request.getBirthDate(), null, null, null, null, null)
+                    : new Fingerprint(request.getFirstName(), request.getLastName(), request.getEmail(), request.getBirthDate(), address.getCountry(),
+                    address.getCity(), address.getStreet(), address.getHouseNumber(), address.getPostalCode());
+        }
+    }
+}
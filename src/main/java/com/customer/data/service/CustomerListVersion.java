@@ -0,0 +1,76 @@
+package com.customer.data.service;
+
+import com.customer.data.event.CustomerChangedEvent;
+import com.customer.data.repository.CustomerRepositoryJpa;
+import com.customer.data.repository.CustomerTableVersion;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Version of the customers table, used as the version of the customer lists
+ * The version is read from the database, the number of customers and the time of their last create or update, so it also
+ * changes with the writes of other instances; a write committing an older update time than a later committed update is
+ * the only change it does not see, until the next write
+ * The last read version is kept until a customer of this instance changes, so only the conditional requests read it again;
+ * a kept version was true when it was read, so at worst it labels newer customers and the next conditional request gets them
+ */
+@Component
+public class CustomerListVersion {
+
+    private final CustomerRepositoryJpa customerRepository;
+
+    private final CustomerShards shards;
+
+    private final AtomicReference<String> lastVersion = new AtomicReference<>();
+
+    public CustomerListVersion(CustomerRepositoryJpa customerRepository, CustomerShards shards) {
+        this.customerRepository = customerRepository;
+        this.shards = shards;
+    }
+
+    /**
+     * Read the version of the customers table, of all shards
+     * Read it before loading the customers, so the returned customers are never older than the version
+     *
+     * @return the number of customers followed by the time of the last change
+     */
+    @Transactional(readOnly = true)
+    public String getVersion() {
+        long count = 0;
+        Instant lastUpdatedOn = Instant.EPOCH;
+        for (CustomerTableVersion version : shards.fanOut(shard -> customerRepository.findTableVersion())) {
+            count += version.count();
+            if (version.lastUpdatedOn() != null && version.lastUpdatedOn().isAfter(lastUpdatedOn)) {
+                lastUpdatedOn = version.lastUpdatedOn();
+            }
+        }
+        String current = count + "-" + lastUpdatedOn.getEpochSecond() + "." + lastUpdatedOn.getNano();
+        lastVersion.set(current);
+        return current;
+    }
+
+    /**
+     * Get the last read version, reading it only if a customer of this instance changed since
+     *
+     * @return the number of customers followed by the time of the last change
+     */
+    @Transactional(readOnly = true)
+    public String getLastVersion() {
+        String last = lastVersion.get();
+        return last != null ? last : getVersion();
+    }
+
+    /**
+     * Forget the last read version once a change of this instance is committed
+     *
+     * @param event - the saved customer
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        lastVersion.set(null);
+    }
+}
@@ -1,51 +1,178 @@
 package com.customer.data.service;
 
+import com.customer.data.config.CachingConfig;
 import com.customer.data.entity.Address;
 import com.customer.data.entity.Customer;
+import com.customer.data.event.CustomerChangedEvent;
 import com.customer.data.exception.CustomerValidationException;
+import com.customer.data.index.EmailIndex;
+import com.customer.data.index.NamePrefixIndex;
 import com.customer.data.repository.CustomerRepositoryJpa;
+import com.customer.data.repository.CustomerView;
 import com.customer.data.request.AddressRequest;
 import com.customer.data.request.CreateCustomerRequest;
 import com.customer.data.request.UpdateCustomerRequest;
 import com.customer.data.response.AddressResponse;
+import com.customer.data.response.BatchCustomerResponse;
+import com.customer.data.response.CustomerPageResponse;
 import com.customer.data.response.CustomerResponse;
+import com.customer.data.validation.IsoDateValidator;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.Period;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@CacheConfig(cacheNames = CachingConfig.CUSTOMERS_CACHE)
 public class CustomerService {
 
     private final CustomerRepositoryJpa customerRepository;
 
+    public static final int MAX_PAGE_SIZE = 500;
+
+    public static final int MAX_SEARCH_LIMIT = 100;
+
+    private static final int EXPORT_PAGE_SIZE = 500;
+
+    private static final Comparator<CustomerView> BY_ID = Comparator.comparing(CustomerView::id);
+
     protected static final Logger logger = LogManager.getLogger();
 
-    public CustomerService(CustomerRepositoryJpa customerRepository) {
+    /**
+     * Logger for the detail logged once per customer row, disabled by default and rate limited in the log4j2 configuration
+     */
+    protected static final Logger rowLogger = LogManager.getLogger(CustomerService.class.getName() + ".rows");
+
+    private final EmailIndex emailIndex;
+
+    private final NamePrefixIndex nameIndex;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final CustomerShards shards;
+
+    private final CustomerEmailRegistry emailRegistry;
+
+    public CustomerService(CustomerRepositoryJpa customerRepository, EmailIndex emailIndex, NamePrefixIndex nameIndex,
+                           ApplicationEventPublisher eventPublisher, CustomerShards shards, CustomerEmailRegistry emailRegistry) {
         this.customerRepository = customerRepository;
+        this.emailIndex = emailIndex;
+        this.nameIndex = nameIndex;
+        this.eventPublisher = eventPublisher;
+        this.shards = shards;
+        this.emailRegistry = emailRegistry;
     }
 
     /**
-     * Get all customers from database
+     * Get all customers from database, ordered by id
+     * With shards, the customers of all shards are read in parallel and merged
      *
      * @return list of all customers
      */
     @Transactional(readOnly = true)
     public List<CustomerResponse> getAll() {
         logger.info("Getting all customers.");
-        List<Customer> customerList = customerRepository.findAll();
-        logger.info("Send list of all customers to client.");
+        List<CustomerView> customerList = CustomerShards.mergeSorted(shards.fanOut(shard -> customerRepository.findAllViews()), BY_ID, Integer.MAX_VALUE);
+        logger.debug("Send list of all customers to client.");
         return customerList.stream().map(this::createCustomerResponse).collect(Collectors.toList());
     }
 
+    /**
+     * Stream all customers from database one by one, without keeping them in memory
+     * With shards, the customers are read page by page from all shards, a page is kept in memory
+     *
+     * @param consumer - receives every customer in id order
+     */
+    @Transactional(readOnly = true)
+    public void exportAll(Consumer<CustomerResponse> consumer) {
+        logger.info("Export all customers.");
+        long count = 0;
+        if (shards.isSharded()) {
+            long afterId = 0;
+            List<CustomerView> page;
+            do {
+                page = findViewsAfterId(afterId, EXPORT_PAGE_SIZE);
+                for (CustomerView customer : page) {
+                    consumer.accept(createCustomerResponse(customer));
+                    afterId = customer.id();
+                }
+                count += page.size();
+            } while (page.size() == EXPORT_PAGE_SIZE);
+            logger.info("Exported {} customers.", count);
+            return;
+        }
+        try (Stream<CustomerView> customers = customerRepository.streamAllViews()) {
+            Iterator<CustomerView> iterator = customers.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(createCustomerResponse(iterator.next()));
+                count++;
+            }
+        }
+        logger.info("Exported {} customers.", count);
+    }
+
+    /**
+     * Get one page of customers ordered by id, seeking after the id encoded in the cursor
+     *
+     * @param cursor - the cursor returned with the previous page, null or empty for the first page
+     * @param size   - the maximum number of customers in the page
+     * @return the page of customers and the cursor for the next page, null when there are no more customers
+     * @throws CustomerValidationException the error message if the cursor or the page size is not valid
+     */
+    @Transactional(readOnly = true)
+    public CustomerPageResponse getPage(String cursor, int size) throws CustomerValidationException {
+        validatePageSize(size);
+        long afterId = CustomerCursor.decode(cursor);
+        logger.info("Getting a page of {} customers after id: {}", size, afterId);
+        List<CustomerView> customerList = findViewsAfterId(afterId, size + 1);
+
+        boolean hasNext = customerList.size() > size;
+        List<CustomerView> page = hasNext ? customerList.subList(0, size) : customerList;
+        String nextCursor = hasNext ? CustomerCursor.encode(page.get(page.size() - 1).id()) : null;
+        logger.debug("Send the page of customers to client.");
+        return CustomerPageResponse.builder().customers(page.stream().map(this::createCustomerResponse).collect(Collectors.toList()))
+                .nextCursor(nextCursor).build();
+    }
+
+    /**
+     * Verify the size of a page of customers
+     *
+     * @param size - the maximum number of customers in the page
+     * @throws CustomerValidationException the error message if the size is not between 1 and MAX_PAGE_SIZE
+     */
+    public static void validatePageSize(int size) throws CustomerValidationException {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            logger.error("The page size {} is not between 1 and {}!", size, MAX_PAGE_SIZE);
+            throw new CustomerValidationException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
     /**
      * Add a new customer in database
      *
@@ -53,48 +180,107 @@ public class CustomerService {
      * @return the saved customer
      * @throws CustomerValidationException the error message if the age of a customer is below 18 or the email already exists
      */
-    @Transactional(propagation = Propagation.REQUIRED)
+    @Transactional(propagation = Propagation.REQUIRED, rollbackFor = CustomerValidationException.class)
+    @CachePut(key = "#result.id")
     public CustomerResponse addCustomer(CreateCustomerRequest createCustomerRequest) throws CustomerValidationException {
         logger.info("Save a customer.");
-        LocalDate birthDate = LocalDate.parse(createCustomerRequest.getBirthDate(), DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+        shards.bindToTransaction(shards.nextShard());
+        LocalDate birthDate = getBirthDate(createCustomerRequest);
         verifyCustomerAge(birthDate);
 
-        Customer customer = Customer.builder().firstName(createCustomerRequest.getFirstName()).lastName(createCustomerRequest.getLastName())
-                .age(birthDate).build();
-        String email = createCustomerRequest.getEmail();
-        emailExists(email);
+        emailExists(createCustomerRequest.getEmail());
+        Customer customer = createCustomer(createCustomerRequest, birthDate);
 
-        AddressRequest addressRequest = createCustomerRequest.getCurrentLivingAddress();
+        Customer savedCustomer = saveCustomer(customer);
+        emailRegistry.register(savedCustomer.getEmail(), savedCustomer.getId());
+        logger.debug("The customer is saved in database.");
+        CustomerResponse response = createCustomerResponse(savedCustomer);
+        eventPublisher.publishEvent(new CustomerChangedEvent(CustomerChangedEvent.Type.CREATED, response, null));
+        return response;
+    }
 
-        if (email != null) {
-            if (!email.isEmpty()) {
-                customer.setEmail(email);
+    /**
+     * Add many customers in database in a single transaction
+     * The emails of all customers are verified against the email index and the customers are inserted with JDBC batching
+     * A customer that fails the validation is reported as failed without stopping the others
+     * With shards, all customers of the batch are saved on the same shard
+     *
+     * @param createCustomerRequests - the customers to be saved in database, by their index in the client request
+     * @return the result for every customer, created or failed with the error message
+     * @throws CustomerValidationException the error message if an email was registered concurrently by another request
+     */
+    @Transactional(propagation = Propagation.REQUIRED, rollbackFor = CustomerValidationException.class)
+    public List<BatchCustomerResponse> addCustomers(Map<Integer, CreateCustomerRequest> createCustomerRequests) throws CustomerValidationException {
+        logger.info("Save a batch of {} customers.", createCustomerRequests.size());
+        shards.bindToTransaction(shards.nextShard());
+        Set<String> batchEmails = new HashSet<>();
+
+        List<BatchCustomerResponse> results = new ArrayList<>(createCustomerRequests.size());
+        Map<Integer, Customer> customers = new LinkedHashMap<>();
+        for (Map.Entry<Integer, CreateCustomerRequest> entry : createCustomerRequests.entrySet()) {
+            CreateCustomerRequest createCustomerRequest = entry.getValue();
+            try {
+                LocalDate birthDate = getBirthDate(createCustomerRequest);
+                verifyCustomerAge(birthDate);
+                String email = EmailIndex.normalize(createCustomerRequest.getEmail());
+                if (email != null && (emailIndex.contains(email) || !batchEmails.add(email))) {
+                    logger.error("The email is already registered in database!");
+                    throw new CustomerValidationException("This email already exists!");
+                }
+                customers.put(entry.getKey(), createCustomer(createCustomerRequest, birthDate));
+            } catch (CustomerValidationException e) {
+                results.add(BatchCustomerResponse.builder().index(entry.getKey()).status(BatchCustomerResponse.Status.FAILED)
+                        .errorMessage(e.getMessage()).build());
             }
         }
-        if (addressRequest != null) {
-            Address address = Address.builder().country(createCustomerRequest.getCurrentLivingAddress().getCountry()).city(createCustomerRequest.getCurrentLivingAddress().getCity())
-                    .street(createCustomerRequest.getCurrentLivingAddress().getStreet()).houseNumber(createCustomerRequest.getCurrentLivingAddress().getHouseNumber())
-                    .postalCode(createCustomerRequest.getCurrentLivingAddress().getPostalCode()).build();
-            customer.setCurrentLivingAddress(address);
-        }
 
-        Customer savedCustomer = customerRepository.save(customer);
-        logger.info("The customer is saved in database.");
-        return createCustomerResponse(savedCustomer);
+        try {
+            customerRepository.saveAllAndFlush(customers.values());
+        } catch (DataIntegrityViolationException e) {
+            throw translateIntegrityViolation(e);
+        }
+        for (Customer customer : customers.values()) {
+            emailRegistry.register(customer.getEmail(), customer.getId());
+        }
+        customers.forEach((index, customer) -> {
+            CustomerResponse response = createCustomerResponse(customer);
+            eventPublisher.publishEvent(new CustomerChangedEvent(CustomerChangedEvent.Type.CREATED, response, null));
+            results.add(BatchCustomerResponse.builder().index(index).status(BatchCustomerResponse.Status.CREATED).customer(response).build());
+        });
+        logger.info("The batch of {} customers is saved in database.", customers.size());
+        return results;
     }
 
     /**
      * Get customer by its id
+     * The customer is read through the customers cache, from the shard encoded in its id
      *
      * @param id - id for the searched customer
      * @return customer response by its id
      * @throws CustomerValidationException the error message that the searched id doesn't exist
      */
+    @Cacheable(key = "#id")
     public CustomerResponse getCustomerById(Long id) throws CustomerValidationException {
-        logger.info("Get the customer by its id.");
-        Customer savedCustomer = findCustomerById(id);
-        logger.info("Send the found customer by id: " + id);
-        return createCustomerResponse(savedCustomer);
+        logger.info("Get the customer by id: {}", id);
+        int shard = shards.shardOf(id);
+        Optional<CustomerView> customerView = shard < 0 ? Optional.empty() : shards.onShard(shard, () -> customerRepository.findViewById(id));
+        if (customerView.isEmpty()) {
+            logger.error("The customer with id {} doesn't exist!", id);
+            throw new CustomerValidationException("The customer with id " + id + " doesn't exist");
+        }
+        logger.debug("Send the found customer by id: {}", id);
+        return createCustomerResponse(customerView.get());
+    }
+
+    /**
+     * Get the version of a customer, the time of its last update, with a single column query instead of loading the customer
+     *
+     * @param id - id for the searched customer
+     * @return the time of the last update, empty if the customer doesn't exist
+     */
+    public Optional<Instant> getCustomerVersion(Long id) {
+        int shard = shards.shardOf(id);
+        return shard < 0 ? Optional.empty() : shards.onShard(shard, () -> customerRepository.findLastUpdatedOnById(id));
     }
 
     /**
@@ -105,10 +291,16 @@ public class CustomerService {
      * @return the updated customer
      * @throws CustomerValidationException the error message if email already exists or customer cannot be found by id
      */
-    @Transactional(propagation = Propagation.REQUIRED)
+    @Transactional(propagation = Propagation.REQUIRED, rollbackFor = CustomerValidationException.class)
+    @CachePut(key = "#id")
     public CustomerResponse updateCustomer(UpdateCustomerRequest customerRequest, Long id) throws CustomerValidationException {
-        logger.info("Update the email or address from customer with id: " + id);
+        logger.info("Update the email or address from customer with id: {}", id);
+        int shard = shards.shardOf(id);
+        if (shard >= 0) {
+            shards.bindToTransaction(shard);
+        }
         Customer foundCustomer = findCustomerById(id);
+        String previousEmail = foundCustomer.getEmail();
 
         String email = customerRequest.getEmail();
         emailExists(email);
@@ -130,23 +322,67 @@ public class CustomerService {
             foundCustomer.setCurrentLivingAddress(null);
         }
 
-        Customer updatedCustomer = customerRepository.save(foundCustomer);
-        logger.info("The customer with id: " + id + " was updated.");
-        return createCustomerResponse(updatedCustomer);
+        Customer updatedCustomer = saveCustomer(foundCustomer);
+        if (updatedCustomer.getEmail() != null) {
+            emailRegistry.register(updatedCustomer.getEmail(), id);
+        }
+        if (!Objects.equals(EmailIndex.normalize(previousEmail), EmailIndex.normalize(updatedCustomer.getEmail()))) {
+            emailRegistry.releaseAfterCommit(previousEmail, id);
+        }
+        logger.debug("The customer with id: {} was updated.", id);
+        CustomerResponse response = createCustomerResponse(updatedCustomer);
+        eventPublisher.publishEvent(new CustomerChangedEvent(CustomerChangedEvent.Type.UPDATED, response, previousEmail));
+        return response;
     }
 
     /**
      * Get customers by searching after their first name or last name
+     * The matching ids are found in the in-memory name index, only the returned customers are loaded from database,
+     * in parallel from the shards of their ids
      *
-     * @param name - the first or last name for searched customers
-     * @return list of searched customers
+     * @param name  - the beginning of the first or last name for searched customers
+     * @param limit - the maximum number of customers to return
+     * @return list of searched customers, ordered by the matched name
+     * @throws CustomerValidationException the error message if the limit is not valid
      */
     @Transactional(readOnly = true)
-    public List<CustomerResponse> getCustomerByName(String name) {
-        logger.info("Search all customers with first name or last name starting with: " + name);
-        List<Customer> customerList = customerRepository.findByFirstNameStartsWithIgnoreCaseOrLastNameStartsWithIgnoreCase(name, name);
-        logger.info("Getting all searched customers by first name or last name.");
-        return customerList.stream().map(this::createCustomerResponse).collect(Collectors.toList());
+    public List<CustomerResponse> getCustomerByName(String name, int limit) throws CustomerValidationException {
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            logger.error("The search limit {} is not between 1 and {}!", limit, MAX_SEARCH_LIMIT);
+            throw new CustomerValidationException("Search limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+        logger.info("Search customers with first name or last name starting with: {}", name);
+        List<Long> ids = nameIndex.search(name, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, CustomerView> customersById = shards.fanOut(shard -> findViewsByIdOnShard(shard, ids)).stream()
+                .flatMap(List::stream).collect(Collectors.toMap(CustomerView::id, customer -> customer));
+        logger.debug("Getting all searched customers by first name or last name.");
+        return ids.stream().map(customersById::get).filter(Objects::nonNull).map(this::createCustomerResponse).collect(Collectors.toList());
+    }
+
+    /**
+     * Find a page of customers after an id, from all shards
+     *
+     * @param afterId - the id before the page
+     * @param size    - the maximum number of customers
+     * @return the customers ordered by id
+     */
+    private List<CustomerView> findViewsAfterId(long afterId, int size) {
+        return CustomerShards.mergeSorted(shards.fanOut(shard -> customerRepository.findViewsAfterId(afterId, Limit.of(size))), BY_ID, size);
+    }
+
+    /**
+     * Find the customers of a shard among the ids
+     *
+     * @param shard - the index of the shard
+     * @param ids   - the ids of customers on any shard
+     * @return the customers with the ids that belong to the shard
+     */
+    private List<CustomerView> findViewsByIdOnShard(int shard, List<Long> ids) {
+        List<Long> shardIds = shards.isSharded() ? ids.stream().filter(id -> shards.shardOf(id) == shard).toList() : ids;
+        return shardIds.isEmpty() ? List.of() : customerRepository.findViewsByIdIn(shardIds);
     }
 
     /**
@@ -158,25 +394,85 @@ public class CustomerService {
      */
     @Transactional(readOnly = true)
     private Customer findCustomerById(Long id) throws CustomerValidationException {
-        logger.info("Find the customer by its id.");
+        logger.debug("Find the customer by its id.");
         Optional<Customer> customerOptional = customerRepository.findById(id);
         if (customerOptional.isPresent()) {
-            logger.info("The customer was found.");
+            logger.debug("The customer was found.");
             return customerOptional.get();
         } else {
-            logger.error("The customer with id " + id + " doesn't exist!");
+            logger.error("The customer with id {} doesn't exist!", id);
             throw new CustomerValidationException("The customer with id " + id + " doesn't exist");
         }
     }
 
+    /**
+     * Save a customer and flush it, so a duplicated email is reported by the unique constraint inside this method
+     *
+     * @param customer - the customer to be saved
+     * @return the saved customer
+     * @throws CustomerValidationException the error message that the email already exists
+     */
+    private Customer saveCustomer(Customer customer) throws CustomerValidationException {
+        try {
+            Customer savedCustomer = customerRepository.save(customer);
+            customerRepository.flush();
+            return savedCustomer;
+        } catch (DataIntegrityViolationException e) {
+            throw translateIntegrityViolation(e);
+        }
+    }
+
+    /**
+     * Translate the violation of the unique email constraint to a validation error
+     *
+     * @param exception - the exception thrown by the database
+     * @return the validation error for a duplicated email
+     * @throws DataIntegrityViolationException the same exception if another constraint was violated
+     */
+    private static CustomerValidationException translateIntegrityViolation(DataIntegrityViolationException exception) {
+        if (exception.getCause() instanceof ConstraintViolationException violation && violation.getConstraintName() != null
+                && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(Customer.EMAIL_CONSTRAINT)) {
+            logger.error("The email is already registered in database!");
+            return new CustomerValidationException("This email already exists!");
+        }
+        throw exception;
+    }
+
+    /**
+     * Create a new Customer object, with its address, from the create request
+     *
+     * @param createCustomerRequest - the customer to be created
+     * @param birthDate             - the parsed birthdate of the customer
+     * @return the Customer object
+     */
+    private Customer createCustomer(CreateCustomerRequest createCustomerRequest, LocalDate birthDate) {
+        Customer customer = Customer.builder().firstName(createCustomerRequest.getFirstName()).lastName(createCustomerRequest.getLastName())
+                .age(birthDate).build();
+        String email = createCustomerRequest.getEmail();
+        AddressRequest addressRequest = createCustomerRequest.getCurrentLivingAddress();
+
+        if (email != null) {
+            if (!email.isEmpty()) {
+                customer.setEmail(email);
+            }
+        }
+        if (addressRequest != null) {
+            Address address = Address.builder().country(addressRequest.getCountry()).city(addressRequest.getCity())
+                    .street(addressRequest.getStreet()).houseNumber(addressRequest.getHouseNumber())
+                    .postalCode(addressRequest.getPostalCode()).build();
+            customer.setCurrentLivingAddress(address);
+        }
+        return customer;
+    }
+
     /**
      * Transform Customer object to CustomerResponse object
      *
      * @param customer - the Customer object
      * @return the CustomerResponse object
      */
-    private CustomerResponse createCustomerResponse(Customer customer) {
-        logger.info("Transform the Customer object in Customer Response object.");
+    public CustomerResponse createCustomerResponse(Customer customer) {
+        rowLogger.trace("Transform the Customer object with id: {} in Customer Response object.", customer.getId());
         CustomerResponse response = CustomerResponse.builder().id(customer.getId()).firstName(customer.getFirstName()).lastName(customer.getLastName())
                 .email(customer.getEmail()).age(calculateAge(customer.getAge())).createdOn(customer.getCreatedOn()).lastUpdatedOn(customer.getLastUpdatedOn()).build();
         if (customer.getCurrentLivingAddress() != null) {
@@ -185,27 +481,59 @@ public class CustomerService {
                     .postalCode(customer.getCurrentLivingAddress().getPostalCode()).build();
             response.setCurrentLivingAddress(addressResponse);
         }
-        logger.info("Send the customer response object.");
         return response;
     }
 
     /**
-     * Verify if the email exists
+     * Transform the CustomerView projection to CustomerResponse object
+     *
+     * @param customer - the customer columns selected from database
+     * @return the CustomerResponse object
+     */
+    public CustomerResponse createCustomerResponse(CustomerView customer) {
+        rowLogger.trace("Transform the Customer view with id: {} in Customer Response object.", customer.id());
+        CustomerResponse response = CustomerResponse.builder().id(customer.id()).firstName(customer.firstName()).lastName(customer.lastName())
+                .email(customer.email()).age(calculateAge(customer.birthDate())).createdOn(customer.createdOn()).lastUpdatedOn(customer.lastUpdatedOn()).build();
+        if (customer.addressId() != null) {
+            AddressResponse addressResponse = AddressResponse.builder().country(customer.country()).city(customer.city())
+                    .street(customer.street()).houseNumber(customer.houseNumber()).postalCode(customer.postalCode()).build();
+            response.setCurrentLivingAddress(addressResponse);
+        }
+        return response;
+    }
+
+    /**
+     * Verify if the email exists, using the in-memory email index instead of a database query
+     * With shards, the email is registered on its owner shard when the customer is saved, see {@link CustomerEmailRegistry}
      * If email already exist, an error message will be sent
      *
      * @param email - the searched email to be verified
      * @throws CustomerValidationException the error message that the email already exists
      */
-    @Transactional(readOnly = true)
     private void emailExists(String email) throws CustomerValidationException {
-        logger.info("Verify if the email is already registered in database.");
-        List<Customer> foundCustomer = customerRepository.findByEmail(email);
-        if (!foundCustomer.isEmpty() && email != null) {
+        logger.debug("Verify if the email is already registered in database.");
+        if (email != null && emailIndex.contains(email)) {
             logger.error("The email is already registered in database!");
             throw new CustomerValidationException("This email already exists!");
         }
     }
 
+    /**
+     * Get the birth date of the request, parsed once by the request for the controller validation and the service
+     *
+     * @param createCustomerRequest - the customer to be saved in database
+     * @return the birth date
+     * @throws CustomerValidationException the error message that the birth date is not in yyyy-MM-dd format
+     */
+    private LocalDate getBirthDate(CreateCustomerRequest createCustomerRequest) throws CustomerValidationException {
+        LocalDate birthDate = createCustomerRequest.getBirthLocalDate();
+        if (birthDate == null) {
+            logger.error("Birth date must be in {} format", IsoDateValidator.FORMAT);
+            throw new CustomerValidationException("Birth date must be in " + IsoDateValidator.FORMAT + " format");
+        }
+        return birthDate;
+    }
+
     /**
      * Verify if the customer age is below 18
      *
@@ -213,7 +541,7 @@ public class CustomerService {
      * @throws CustomerValidationException the error message that the birthdate is below the age of 18 years
      */
     private void verifyCustomerAge(LocalDate birthDate) throws CustomerValidationException {
-        logger.info("Verify if customer age is below 18 years.");
+        logger.debug("Verify if customer age is below 18 years.");
         int age = calculateAge(birthDate);
         if (age < 18) {
             logger.error("Customer's age is below 18 years!");
@@ -227,12 +555,12 @@ public class CustomerService {
      * @param birthDate - the birthdate
      * @return the age of the customer
      */
-    private static int calculateAge(LocalDate birthDate) {
-        logger.info("Calculate the age based on birthdate.");
+    public static int calculateAge(LocalDate birthDate) {
         LocalDate now = LocalDate.now();
         Period period = Period.between(birthDate, now);
 
-        logger.info("Get the age of the customer.");
-        return period.getYears();
+        int age = period.getYears();
+        rowLogger.trace("Calculated the age {} for birthdate {}.", age, birthDate);
+        return age;
     }
 }
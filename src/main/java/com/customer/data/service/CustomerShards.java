@@ -0,0 +1,216 @@
+package com.customer.data.service;
+
+import com.customer.data.datasource.ShardContext;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * The shards of the customers: the spring.datasource database followed by the databases of customers.shards.urls
+ * A new customer is saved on a random shard, a customer is then found by the shard encoded in its id,
+ * and the queries over all customers run on every shard in parallel, each in its own read-only transaction
+ * Without shards every call runs at once on the calling thread, in its transaction
+ */
+@Component
+public class CustomerShards {
+
+    private final int shardCount;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final TransactionTemplate writeTransaction;
+
+    private final ExecutorService fanOutExecutor;
+
+    public CustomerShards(@Value("${customers.shards.enabled:false}") boolean enabled,
+                          @Value("${customers.shards.urls:}") List<String> shardUrls,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${customers.shards.fan-out-threads:16}") int fanOutThreads) {
+        this.shardCount = enabled ? 1 + (int) shardUrls.stream().filter(url -> !url.isBlank()).count() : 1;
+        if (isSharded()) {
+            this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+            this.readOnlyTransaction.setReadOnly(true);
+            this.writeTransaction = new TransactionTemplate(transactionManager);
+            AtomicInteger threads = new AtomicInteger();
+            this.fanOutExecutor = Executors.newFixedThreadPool(fanOutThreads, runnable -> {
+                Thread thread = new Thread(runnable, "customer-shards-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.readOnlyTransaction = null;
+            this.writeTransaction = null;
+            this.fanOutExecutor = null;
+        }
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public boolean isSharded() {
+        return shardCount > 1;
+    }
+
+    /**
+     * Get the shard of a customer
+     *
+     * @param id - the id of the customer
+     * @return the index of the shard encoded in the id, or -1 if the id does not belong to any shard
+     */
+    public int shardOf(long id) {
+        if (!isSharded()) {
+            return 0;
+        }
+        int shard = ShardContext.shardOf(id);
+        return shard < shardCount ? shard : -1;
+    }
+
+    /**
+     * Choose the shard of new customers
+     *
+     * @return the index of a random shard
+     */
+    public int nextShard() {
+        return isSharded() ? ThreadLocalRandom.current().nextInt(shardCount) : 0;
+    }
+
+    /**
+     * Send the current transaction to a shard, until it completes
+     * Must be called inside the transaction and before its first statement
+     *
+     * @param shard - the index of the shard
+     */
+    public void bindToTransaction(int shard) {
+        if (!isSharded()) {
+            return;
+        }
+        ShardContext.set(shard);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                ShardContext.clear();
+            }
+        });
+    }
+
+    /**
+     * Run a query on one shard, on the calling thread
+     * The query must open its own transaction, a transaction already bound to a connection stays on its shard
+     *
+     * @param shard - the index of the shard
+     * @param query - the query to be run
+     * @return the result of the query
+     */
+    public <T> T onShard(int shard, Supplier<T> query) {
+        return isSharded() ? ShardContext.callOn(shard, query) : query.get();
+    }
+
+    /**
+     * Run an action on every shard in turn, on the calling thread
+     *
+     * @param action - receives the index of every shard, with the shard chosen for the thread
+     */
+    public void forEachShard(IntConsumer action) {
+        for (int shard = 0; shard < shardCount; shard++) {
+            int current = shard;
+            onShard(current, () -> {
+                action.accept(current);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Run a query on all shards in parallel, each in a read-only transaction on its shard
+     *
+     * @param query - receives the index of the shard it runs on
+     * @return the results of the query, by the index of the shard
+     */
+    public <T> List<T> fanOut(IntFunction<T> query) {
+        if (!isSharded()) {
+            return List.of(query.apply(0));
+        }
+        List<Future<T>> futures = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int current = shard;
+            futures.add(fanOutExecutor.submit(() -> ShardContext.callOn(current,
+                    () -> readOnlyTransaction.execute(status -> query.apply(current)))));
+        }
+        List<T> results = new ArrayList<>(shardCount);
+        for (Future<T> future : futures) {
+            results.add(await(future));
+        }
+        return results;
+    }
+
+    /**
+     * Run a write on one shard in its own transaction, committed when the call returns
+     * The write runs on a fan-out thread, so it never joins the transaction of the calling thread
+     *
+     * @param shard - the index of the shard
+     * @param write - the write to be run
+     * @return the result of the write
+     */
+    public <T> T inTransaction(int shard, Supplier<T> write) {
+        if (!isSharded()) {
+            return write.get();
+        }
+        return await(fanOutExecutor.submit(() -> ShardContext.callOn(shard, () -> writeTransaction.execute(status -> write.get()))));
+    }
+
+    /**
+     * Merge the sorted results of the shards
+     *
+     * @param results    - the results of every shard, each sorted by the comparator
+     * @param comparator - the order of the results
+     * @param limit      - the maximum number of merged results
+     * @return the first results of all shards, in order
+     */
+    public static <T> List<T> mergeSorted(List<List<T>> results, Comparator<? super T> comparator, int limit) {
+        if (results.size() == 1) {
+            List<T> result = results.get(0);
+            return result.size() > limit ? result.subList(0, limit) : result;
+        }
+        return results.stream().flatMap(List::stream).sorted(comparator).limit(limit).collect(Collectors.toList());
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the shards", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (fanOutExecutor != null) {
+            fanOutExecutor.shutdownNow();
+        }
+    }
+}
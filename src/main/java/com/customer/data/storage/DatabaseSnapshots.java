@@ -0,0 +1,83 @@
+package com.customer.data.storage;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Restore of the database file from a snapshot written by BACKUP TO
+ * The snapshot is a zip of the MVStore file, so restoring it is a file copy: the database opens with its rows and indexes
+ * as they were, without running any SQL
+ */
+public final class DatabaseSnapshots {
+
+    private static final String DATABASE_FILE_SUFFIX = ".mv.db";
+
+    protected static final Logger logger = LogManager.getLogger();
+
+    private DatabaseSnapshots() {
+    }
+
+    /**
+     * Verify if the database file exists
+     *
+     * @param directory - the directory of the database
+     * @param name      - the name of the database
+     * @return true if the directory has the MVStore file of the database
+     */
+    public static boolean databaseExists(Path directory, String name) {
+        return Files.exists(directory.resolve(name + DATABASE_FILE_SUFFIX));
+    }
+
+    /**
+     * Restore the database from a snapshot, unless the database already exists
+     * An existing database is never overwritten, so a node keeps its own writes when it restarts with the same settings
+     *
+     * @param snapshot  - the zip written by BACKUP TO
+     * @param directory - the directory of the database
+     * @param name      - the name of the database, the file of the snapshot is renamed to it
+     * @return true if the snapshot was restored
+     * @throws IOException if the snapshot does not exist, has no database file, or cannot be copied
+     */
+    public static boolean restoreIfMissing(Path snapshot, Path directory, String name) throws IOException {
+        if (databaseExists(directory, name)) {
+            logger.info("The database {} exists in {}, the snapshot {} is not restored.", name, directory, snapshot);
+            return false;
+        }
+        if (!Files.isRegularFile(snapshot)) {
+            throw new IOException("The snapshot " + snapshot + " doesn't exist");
+        }
+        long start = System.nanoTime();
+        Files.createDirectories(directory);
+        Path database = directory.resolve(name + DATABASE_FILE_SUFFIX);
+        Path restoring = directory.resolve(name + DATABASE_FILE_SUFFIX + ".restoring");
+        try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(snapshot))) {
+            copyDatabaseFile(zip, restoring, snapshot);
+            Files.move(restoring, database, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(restoring);
+        }
+        logger.info("Restored the database {} from the snapshot {} in {} ms.", name, snapshot, (System.nanoTime() - start) / 1_000_000);
+        return true;
+    }
+
+    /**
+     * Copy the database file of the snapshot, the database is renamed to the name of the restored database
+     * The file is written next to the database and moved at the end, so a failed restore never leaves a partial database
+     */
+    private static void copyDatabaseFile(ZipInputStream zip, Path target, Path snapshot) throws IOException {
+        for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+            if (!entry.isDirectory() && entry.getName().endsWith(DATABASE_FILE_SUFFIX)) {
+                Files.copy(zip, target, StandardCopyOption.REPLACE_EXISTING);
+                return;
+            }
+        }
+        throw new IOException("The snapshot " + snapshot + " has no database file");
+    }
+}
@@ -0,0 +1,75 @@
+package com.customer.data.storage;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Actuator endpoint writing a snapshot of the file database, POST /actuator/snapshot
+ * BACKUP TO copies a consistent version of the MVStore file into a zip while the application keeps writing
+ * The endpoint is not exposed over HTTP by default, and one snapshot is written at a time
+ */
+@Endpoint(id = "snapshot")
+public class SnapshotEndpoint {
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS").withZone(ZoneOffset.UTC);
+
+    protected static final Logger logger = LogManager.getLogger();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Path snapshotDirectory;
+
+    private final String name;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public SnapshotEndpoint(JdbcTemplate jdbcTemplate, Path snapshotDirectory, String name) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.snapshotDirectory = snapshotDirectory;
+        this.name = name;
+    }
+
+    /**
+     * Write a snapshot of the database
+     *
+     * @return the file of the snapshot, to be used as customers.storage.restore-from, its size and the time it took
+     * @throws IOException if the snapshot directory cannot be created
+     * @throws IllegalStateException if another snapshot is being written
+     */
+    @WriteOperation
+    public Snapshot snapshot() throws IOException {
+        if (!running.compareAndSet(false, true)) {
+            logger.error("A snapshot is already being written!");
+            throw new IllegalStateException("A snapshot is already being written");
+        }
+        try {
+            return writeSnapshot();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private Snapshot writeSnapshot() throws IOException {
+        Files.createDirectories(snapshotDirectory);
+        Path file = snapshotDirectory.resolve(name + "-" + FILE_TIME.format(Instant.now()) + ".zip").toAbsolutePath();
+        long start = System.nanoTime();
+        jdbcTemplate.execute("BACKUP TO '" + file.toString().replace("'", "''") + "'");
+        long durationMillis = (System.nanoTime() - start) / 1_000_000;
+        logger.info("Wrote the snapshot {} in {} ms.", file, durationMillis);
+        return new Snapshot(file.toString(), Files.size(file), durationMillis);
+    }
+
+    public record Snapshot(String file, long sizeBytes, long durationMillis) {
+    }
+}
@@ -1,4 +1,4 @@
-package com.customer.data.controller.validation;
+package com.customer.data.validation;
 
 public interface DateValidator {
     boolean isValid(String dateStr);
@@ -1,4 +1,4 @@
-package com.customer.data.controller.validation;
+package com.customer.data.validation;
 
 import java.text.DateFormat;
 import java.text.ParseException;
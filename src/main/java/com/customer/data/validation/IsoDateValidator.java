@@ -0,0 +1,53 @@
+package com.customer.data.validation;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.chrono.IsoChronology;
+
+/**
+ * Validate and parse dates in the ISO yyyy-MM-dd format without a formatter
+ * The text is read character by character, so a valid date allocates only the LocalDate and an invalid one nothing
+ */
+public class IsoDateValidator implements DateValidator {
+
+    public static final String FORMAT = "yyyy-MM-dd";
+
+    private static final int LENGTH = FORMAT.length();
+
+    @Override
+    public boolean isValid(String dateStr) {
+        return parse(dateStr) != null;
+    }
+
+    /**
+     * Parse a date in the yyyy-MM-dd format, the year between 0001 and 9999
+     *
+     * @param text - the date to be parsed
+     * @return the parsed date, null if the text is null, not in the yyyy-MM-dd format or not an existing date
+     */
+    public static LocalDate parse(CharSequence text) {
+        if (text == null || text.length() != LENGTH || text.charAt(4) != '-' || text.charAt(7) != '-') {
+            return null;
+        }
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 7);
+        int day = digits(text, 8, 10);
+        if (year < 1 || month < 1 || month > 12 || day < 1
+                || day > Month.of(month).length(IsoChronology.INSTANCE.isLeapYear(year))) {
+            return null;
+        }
+        return LocalDate.of(year, month, day);
+    }
+
+    private static int digits(CharSequence text, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
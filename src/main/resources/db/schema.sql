@@ -0,0 +1,47 @@
+-- Schema of the customers database for the file profile, validated by Hibernate at startup (spring.jpa.hibernate.ddl-auto=validate)
+-- Every statement is skipped when its object exists, so the script runs on every startup, also on a restored snapshot
+
+create sequence if not exists address_seq start with 1 increment by 50;
+
+create sequence if not exists customer_seq start with 1 increment by 50;
+
+create table if not exists address (
+    id bigint not null,
+    city varchar(255),
+    country varchar(255),
+    house_number varchar(255),
+    postal_code varchar(255),
+    street varchar(255),
+    constraint pk_address primary key (id)
+);
+
+create table if not exists customer (
+    id bigint not null,
+    age date,
+    created_on timestamp(6) with time zone,
+    email varchar(255),
+    email_key varchar(255),
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    last_updated_on timestamp(6) with time zone,
+    address_id bigint,
+    constraint pk_customer primary key (id),
+    constraint uk_customer_email_key unique (email_key),
+    constraint uk_customer_address unique (address_id),
+    constraint fk_customer_address foreign key (address_id) references address (id)
+);
+
+-- A database created before email_key gets the normalized emails, the unique constraint moves from email to email_key
+alter table customer add column if not exists email_key varchar(255);
+update customer set email_key = nullif(lower(trim(email)), '') where email_key is null and email is not null;
+alter table customer drop constraint if exists uk_customer_email;
+alter table customer add constraint if not exists uk_customer_email_key unique (email_key);
+
+create index if not exists idx_customer_changes on customer (last_updated_on, id);
+
+create table if not exists customer_email (
+    email varchar(255) not null,
+    customer_id bigint not null,
+    reserved_on timestamp(6) with time zone not null,
+    constraint pk_customer_email primary key (email)
+);
@@ -0,0 +1,55 @@
+package com.customer.data;
+
+import com.customer.data.config.CachingConfig;
+import com.customer.data.exception.CustomerValidationException;
+import com.customer.data.request.CreateCustomerRequest;
+import com.customer.data.request.UpdateCustomerRequest;
+import com.customer.data.response.CustomerResponse;
+import com.customer.data.service.CustomerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class CustomerCacheTest {
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void customerIsCachedAndRefreshedAfterCommitTest() throws CustomerValidationException {
+        Cache cache = cacheManager.getCache(CachingConfig.CUSTOMERS_CACHE);
+        CustomerResponse created = customerService.addCustomer(
+                new CreateCustomerRequest("Gabi", "Abrudan", "cache.gabi@yahoo.com", "1997-01-02", null));
+
+        assertThat(cache.get(created.getId(), CustomerResponse.class)).isSameAs(created);
+        assertThat(customerService.getCustomerById(created.getId())).isSameAs(created);
+
+        CustomerResponse updated = customerService.updateCustomer(new UpdateCustomerRequest("cache.abrudan@yahoo.com", null), created.getId());
+
+        assertThat(customerService.getCustomerById(created.getId()).getEmail()).isEqualTo("cache.abrudan@yahoo.com");
+        assertThat(cache.get(created.getId(), CustomerResponse.class)).isSameAs(updated);
+    }
+
+    @Test
+    void rolledBackUpdateIsNotCachedTest() throws CustomerValidationException {
+        Cache cache = cacheManager.getCache(CachingConfig.CUSTOMERS_CACHE);
+        customerService.addCustomer(new CreateCustomerRequest("David", "MMM", "cache.david@yahoo.com", "1997-01-02", null));
+        CustomerResponse created = customerService.addCustomer(
+                new CreateCustomerRequest("Ana", "Pop", "cache.ana@yahoo.com", "1997-01-02", null));
+
+        assertThrows(CustomerValidationException.class, () -> {
+            customerService.updateCustomer(new UpdateCustomerRequest("cache.david@yahoo.com", null), created.getId());
+        });
+
+        assertThat(cache.get(created.getId(), CustomerResponse.class).getEmail()).isEqualTo("cache.ana@yahoo.com");
+    }
+}
@@ -0,0 +1,78 @@
+package com.customer.data;
+
+import com.customer.data.exception.CustomerValidationException;
+import com.customer.data.request.CreateCustomerRequest;
+import com.customer.data.request.UpdateCustomerRequest;
+import com.customer.data.response.CustomerChangesResponse;
+import com.customer.data.response.CustomerResponse;
+import com.customer.data.service.CustomerChangeFeed;
+import com.customer.data.service.CustomerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "customers.changes.settle-window=0s")
+class CustomerChangeFeedTest {
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerChangeFeed changeFeed;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void changesArePagedAndResumedFromTheTokenTest() throws CustomerValidationException {
+        String token = drain(null, new ArrayList<>());
+        CustomerResponse first = customerService.addCustomer(new CreateCustomerRequest("Feedgabi", "Abrudan", "feed.gabi@yahoo.com", "1997-01-02", null));
+        CustomerResponse second = customerService.addCustomer(new CreateCustomerRequest("Feedana", "Pop", "feed.ana@yahoo.com", "1997-01-02", null));
+        CustomerResponse third = customerService.addCustomer(new CreateCustomerRequest("Feeddavid", "MMM", "feed.david@yahoo.com", "1997-01-02", null));
+
+        CustomerChangesResponse page = changeFeed.getChanges(token, 2);
+        assertThat(page.isHasMore()).isTrue();
+        assertThat(page.getCustomers()).extracting(CustomerResponse::getId).containsExactly(first.getId(), second.getId());
+        page = changeFeed.getChanges(page.getNextToken(), 2);
+        assertThat(page.isHasMore()).isFalse();
+        assertThat(page.getCustomers()).extracting(CustomerResponse::getId).containsExactly(third.getId());
+
+        String caughtUp = page.getNextToken();
+        assertThat(changeFeed.getChanges(caughtUp, 2).getCustomers()).isEmpty();
+        assertThat(changeFeed.getChanges(caughtUp, 2).getNextToken()).isEqualTo(caughtUp);
+
+        customerService.updateCustomer(new UpdateCustomerRequest("feed.abrudan@yahoo.com", null), first.getId());
+        page = changeFeed.getChanges(caughtUp, 2);
+        assertThat(page.getCustomers()).extracting(CustomerResponse::getEmail).containsExactly("feed.abrudan@yahoo.com");
+    }
+
+    @Test
+    void invalidTokenTest() {
+        CustomerValidationException exception = assertThrows(CustomerValidationException.class, () -> changeFeed.getChanges("bm90LWEtdG9rZW4", 10));
+        assertThat(exception.getMessage()).isEqualTo("The change token is not valid!");
+    }
+
+    @Test
+    void changesIndexExistsTest() {
+        List<String> columns = jdbcTemplate.queryForList("select column_name from information_schema.index_columns "
+                + "where index_name = 'IDX_CUSTOMER_CHANGES' order by ordinal_position", String.class);
+        assertThat(columns).containsExactly("LAST_UPDATED_ON", "ID");
+    }
+
+    private String drain(String token, List<CustomerResponse> customers) throws CustomerValidationException {
+        CustomerChangesResponse page;
+        do {
+            page = changeFeed.getChanges(token, 500);
+            customers.addAll(page.getCustomers());
+            token = page.getNextToken();
+        } while (page.isHasMore());
+        return token;
+    }
+}
@@ -0,0 +1,54 @@
+package com.customer.data;
+
+import com.customer.data.exception.CustomerValidationException;
+import com.customer.data.index.EmailIndex;
+import com.customer.data.request.CreateCustomerRequest;
+import com.customer.data.request.UpdateCustomerRequest;
+import com.customer.data.response.CustomerResponse;
+import com.customer.data.service.CustomerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The database enforces the unique email ignoring case, the email index is emptied to stand for a request that passed it,
+ * as a concurrent request or another instance does
+ */
+@SpringBootTest
+class CustomerEmailUniquenessTest {
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private EmailIndex emailIndex;
+
+    @Test
+    void caseVariantOfAnEmailIsRejectedByTheDatabaseTest() throws CustomerValidationException {
+        CustomerResponse saved = customerService.addCustomer(
+                new CreateCustomerRequest("Unique", "Abrudan", "Unique.Gabi@yahoo.com", "1997-01-02", null));
+        emailIndex.remove("unique.gabi@yahoo.com");
+
+        CustomerValidationException exception = assertThrows(CustomerValidationException.class, () -> customerService.addCustomer(
+                new CreateCustomerRequest("Other", "Abrudan", " unique.gabi@YAHOO.com", "1997-01-02", null)));
+
+        assertThat(exception.getMessage()).isEqualTo("This email already exists!");
+        assertThat(customerService.getCustomerById(saved.getId()).getEmail()).isEqualTo("Unique.Gabi@yahoo.com");
+    }
+
+    @Test
+    void caseVariantOfAnEmailIsRejectedOnUpdateTest() throws CustomerValidationException {
+        customerService.addCustomer(new CreateCustomerRequest("Unique", "Pop", "unique.ana@yahoo.com", "1997-01-02", null));
+        CustomerResponse other = customerService.addCustomer(
+                new CreateCustomerRequest("Unique", "Ion", "unique.ion@yahoo.com", "1997-01-02", null));
+        emailIndex.remove("unique.ana@yahoo.com");
+
+        CustomerValidationException exception = assertThrows(CustomerValidationException.class,
+                () -> customerService.updateCustomer(new UpdateCustomerRequest("UNIQUE.ANA@yahoo.com", null), other.getId()));
+
+        assertThat(exception.getMessage()).isEqualTo("This email already exists!");
+    }
+}
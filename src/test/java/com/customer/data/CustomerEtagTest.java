@@ -0,0 +1,166 @@
+package com.customer.data;
+
+import com.customer.data.request.CreateCustomerRequest;
+import com.customer.data.request.UpdateCustomerRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CustomerEtagTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void customerIsNotSentAgainUntilUpdatedTest() throws Exception {
+        MvcResult created = mockMvc.perform(post("/api/v1/customers").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreateCustomerRequest("Etaggabi", "Abrudan", "etag.gabi@yahoo.com", "1997-01-02", null))))
+                .andExpect(status().isCreated())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn();
+        long id = objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asLong();
+        String etag = created.getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/v1/customers/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+        mockMvc.perform(get("/api/v1/customers/{id}", id).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        MvcResult updated = mockMvc.perform(put("/api/v1/customers/{id}", id).contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UpdateCustomerRequest("etag.abrudan@yahoo.com", null))))
+                .andExpect(status().isOk())
+                .andReturn();
+        String updatedEtag = updated.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(updatedEtag).isNotEqualTo(etag);
+
+        mockMvc.perform(get("/api/v1/customers/{id}", id).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("etag.abrudan@yahoo.com"));
+
+        cacheManager.getCache("customers").clear();
+        mockMvc.perform(get("/api/v1/customers/{id}", id).header(HttpHeaders.IF_NONE_MATCH, updatedEtag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/v1/customers/{id}", id))
+                .andExpect(header().string(HttpHeaders.ETAG, updatedEtag));
+    }
+
+    @Test
+    void listIsNotSentAgainUntilACustomerChangesTest() throws Exception {
+        String etag = mockMvc.perform(get("/api/v1/customers"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertThat(etag).startsWith("W/\"").contains(LocalDate.now().toString());
+
+        mockMvc.perform(get("/api/v1/customers").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/v1/customers").param("all", "true").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/customers").param("size", "10").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/customers").param("size", "0").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/api/v1/customers").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreateCustomerRequest("Etaglist", "Abrudan", "etag.list@yahoo.com", "1997-01-02", null))))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/v1/customers").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+    }
+
+    @Test
+    void pagesHaveTheirOwnEtagTest() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/api/v1/customers").contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new CreateCustomerRequest("Etagpage", "Abrudan", "etag.page" + i + "@yahoo.com", "1997-01-02", null))))
+                    .andExpect(status().isCreated());
+        }
+        MvcResult first = mockMvc.perform(get("/api/v1/customers").param("size", "1"))
+                .andExpect(status().isOk())
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        String cursor = objectMapper.readTree(first.getResponse().getContentAsString()).get("nextCursor").asText();
+
+        mockMvc.perform(get("/api/v1/customers").param("size", "1").param("cursor", cursor).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+    }
+
+    @Test
+    void listEtagChangesWithWritesOfOtherInstancesTest() throws Exception {
+        mockMvc.perform(post("/api/v1/customers").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreateCustomerRequest("Etagother", "Abrudan", "etag.other@yahoo.com", "1997-01-02", null))))
+                .andExpect(status().isCreated());
+        String etag = mockMvc.perform(get("/api/v1/customers").param("all", "true"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        jdbcTemplate.update("update customer set last_updated_on = ? where email = ?",
+                Timestamp.from(Instant.now().plusSeconds(1)), "etag.other@yahoo.com");
+
+        mockMvc.perform(get("/api/v1/customers").param("all", "true").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void listVersionIsReadOnlyForConditionalRequestsTest() throws Exception {
+        mockMvc.perform(post("/api/v1/customers").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreateCustomerRequest("Etaglast", "Abrudan", "etag.last@yahoo.com", "1997-01-02", null))))
+                .andExpect(status().isCreated());
+        String etag = mockMvc.perform(get("/api/v1/customers").param("all", "true"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        jdbcTemplate.update("update customer set last_updated_on = ? where email = ?",
+                Timestamp.from(Instant.now().plusSeconds(1)), "etag.last@yahoo.com");
+
+        mockMvc.perform(get("/api/v1/customers").param("all", "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+        String changedEtag = mockMvc.perform(get("/api/v1/customers").param("all", "true").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/v1/customers").param("all", "true"))
+                .andExpect(header().string(HttpHeaders.ETAG, changedEtag));
+    }
+
+    @Test
+    void notExistingCustomerWithIfNoneMatchTest() throws Exception {
+        mockMvc.perform(get("/api/v1/customers/{id}", Long.MAX_VALUE).header(HttpHeaders.IF_NONE_MATCH, "\"1-0\""))
+                .andExpect(status().isBadRequest());
+    }
+}
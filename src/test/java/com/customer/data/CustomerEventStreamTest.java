@@ -0,0 +1,87 @@
+package com.customer.data;
+
+import com.customer.data.event.CustomerEventStream;
+import com.customer.data.request.CreateCustomerRequest;
+import com.customer.data.request.UpdateCustomerRequest;
+import com.customer.data.response.CustomerResponse;
+import com.customer.data.service.CustomerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class CustomerEventStreamTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerEventStream eventStream;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    void committedChangesArePushedAndResumedTest() throws Exception {
+        Map<String, String> createdEvent;
+        try (Stream<String> lines = subscribe(null)) {
+            CustomerResponse created = customerService.addCustomer(
+                    new CreateCustomerRequest("Eventgabi", "Abrudan", "event.gabi@yahoo.com", "1997-01-02", null));
+            createdEvent = nextEvent(lines.iterator());
+            assertThat(createdEvent).containsEntry("event", "created");
+            assertThat(createdEvent.get("data")).contains("\"id\":" + created.getId());
+
+            customerService.updateCustomer(new UpdateCustomerRequest("event.abrudan@yahoo.com", null), created.getId());
+        }
+
+        try (Stream<String> lines = subscribe(createdEvent.get("id"))) {
+            Map<String, String> updatedEvent = nextEvent(lines.iterator());
+            assertThat(updatedEvent).containsEntry("event", "updated");
+            assertThat(updatedEvent.get("data")).contains("event.abrudan@yahoo.com");
+        }
+    }
+
+    private Stream<String> subscribe(String lastEventId) throws Exception {
+        int subscribers = eventStream.getSubscriberCount();
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/customers/events"))
+                .header("Accept", MediaType.TEXT_EVENT_STREAM_VALUE).timeout(Duration.ofSeconds(10));
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        HttpResponse<Stream<String>> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofLines());
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(eventStream.getSubscriberCount()).isGreaterThan(subscribers);
+        return response.body();
+    }
+
+    private static Map<String, String> nextEvent(Iterator<String> lines) {
+        Map<String, String> fields = new HashMap<>();
+        while (lines.hasNext()) {
+            String line = lines.next();
+            if (line.isEmpty() && fields.containsKey("event")) {
+                return fields;
+            }
+            int colon = line.indexOf(':');
+            if (colon > 0) {
+                fields.put(line.substring(0, colon), line.substring(colon + 1));
+            }
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,107 @@
+package com.customer.data;
+
+import com.customer.data.request.CreateCustomerRequest;
+import com.customer.data.service.CustomerService;
+import com.customer.data.storage.DatabaseSnapshots;
+import com.customer.data.storage.SnapshotEndpoint;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+
+/**
+ * The file profile on a temporary directory: the schema of db/schema.sql is validated by Hibernate at startup,
+ * and a snapshot of the database is restored as a new database
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("file")
+class CustomerFileStorageTest {
+
+    private static final Path STORAGE_DIRECTORY = createTempDirectory();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private SnapshotEndpoint snapshotEndpoint;
+
+    @DynamicPropertySource
+    static void storageProperties(DynamicPropertyRegistry registry) {
+        registry.add("customers.storage.directory", STORAGE_DIRECTORY::toString);
+    }
+
+    @Test
+    void snapshotIsRestoredAsANewDatabaseTest() throws Exception {
+        customerService.addCustomer(new CreateCustomerRequest("Filegabi", "Abrudan", "file.gabi@yahoo.com", "1997-01-02", null));
+
+        SnapshotEndpoint.Snapshot snapshot = snapshotEndpoint.snapshot();
+        assertThat(Path.of(snapshot.file())).exists().startsWith(STORAGE_DIRECTORY.resolve("snapshots").toAbsolutePath());
+        assertThat(snapshot.sizeBytes()).isPositive();
+
+        Path restored = STORAGE_DIRECTORY.resolve("restored");
+        assertThat(DatabaseSnapshots.restoreIfMissing(Path.of(snapshot.file()), restored, "copy")).isTrue();
+        assertThat(DatabaseSnapshots.restoreIfMissing(Path.of(snapshot.file()), restored, "copy")).isFalse();
+        assertThat(countEmails("jdbc:h2:" + restored.resolve("copy").toAbsolutePath(), "file.gabi@yahoo.com")).isEqualTo(1);
+    }
+
+    @Test
+    void snapshotEndpointIsNotExposedTest() throws Exception {
+        Path snapshots = STORAGE_DIRECTORY.resolve("snapshots");
+        long written = Files.isDirectory(snapshots) ? Files.list(snapshots).count() : 0;
+
+        // no handler answers the path, the application answers as for any unknown path
+        mockMvc.perform(post("/actuator/snapshot"))
+                .andExpect(result -> assertThat(result.getResponse().getStatus()).isNotEqualTo(200))
+                .andExpect(jsonPath("$.errorMessage").value(containsString("actuator/snapshot")));
+
+        assertThat(Files.isDirectory(snapshots) ? Files.list(snapshots).count() : 0).isEqualTo(written);
+    }
+
+    @Test
+    void missingSnapshotIsNotRestoredTest() {
+        Path missing = STORAGE_DIRECTORY.resolve("missing.zip");
+
+        assertThrows(IOException.class, () -> DatabaseSnapshots.restoreIfMissing(missing, STORAGE_DIRECTORY.resolve("empty"), "copy"));
+        assertThat(DatabaseSnapshots.databaseExists(STORAGE_DIRECTORY.resolve("empty"), "copy")).isFalse();
+    }
+
+    private static int countEmails(String url, String email) throws SQLException {
+        try (Connection database = DriverManager.getConnection(url, "sa", "");
+             Statement statement = database.createStatement();
+             ResultSet count = statement.executeQuery("select count(*) from customer where email = '" + email + "'")) {
+            count.next();
+            return count.getInt(1);
+        }
+    }
+
+    private static Path createTempDirectory() {
+        try {
+            return Files.createTempDirectory("customers-file-storage");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
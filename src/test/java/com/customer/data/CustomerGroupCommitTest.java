@@ -0,0 +1,120 @@
+package com.customer.data;
+
+import com.customer.data.config.CachingConfig;
+import com.customer.data.entity.Customer;
+import com.customer.data.exception.CustomerValidationException;
+import com.customer.data.repository.CustomerRepositoryJpa;
+import com.customer.data.request.CreateCustomerRequest;
+import com.customer.data.response.CustomerResponse;
+import com.customer.data.service.CustomerGroupCommit;
+import com.customer.data.service.CustomerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.cache.CacheManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+
+@SpringBootTest(properties = {"customers.group-commit.enabled=true", "customers.group-commit.window=50ms"})
+class CustomerGroupCommitTest {
+
+    @Autowired
+    private CustomerGroupCommit groupCommit;
+
+    @Autowired
+    private CustomerRepositoryJpa customerRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @SpyBean
+    private CustomerService customerService;
+
+    @Test
+    void concurrentCustomersAreSavedWithIsolatedFailuresTest() throws Exception {
+        List<Callable<CustomerResponse>> calls = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            String email = "group" + i + "@yahoo.com";
+            calls.add(() -> groupCommit.addCustomer(new CreateCustomerRequest("Group", "Gabi", email, "1997-01-02", null)));
+        }
+        calls.add(() -> groupCommit.addCustomer(new CreateCustomerRequest("Group", "Copy", "group0@yahoo.com", "1997-01-02", null)));
+        calls.add(() -> groupCommit.addCustomer(new CreateCustomerRequest("Group", "Young", "group.young@yahoo.com", "2020-01-02", null)));
+
+        List<String> errors = new ArrayList<>();
+        int created = 0;
+        for (Future<CustomerResponse> result : runConcurrently(calls)) {
+            try {
+                assertThat(result.get().getId()).isNotNull();
+                created++;
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(CustomerValidationException.class);
+                errors.add(e.getCause().getMessage());
+            }
+        }
+
+        assertThat(created).isEqualTo(10);
+        assertThat(errors).containsExactlyInAnyOrder("This email already exists!", "Customer age is smaller than 18!");
+        assertThat(customerRepository.findByEmail("group0@yahoo.com")).hasSize(1);
+    }
+
+    @Test
+    void failedBatchIsSavedOneByOneTest() throws Exception {
+        customerRepository.saveAndFlush(Customer.builder().firstName("Hidden").lastName("Gabi").email("group.hidden@yahoo.com")
+                .age(LocalDate.of(1997, 1, 2)).build());
+
+        List<Callable<CustomerResponse>> calls = List.of(
+                () -> groupCommit.addCustomer(new CreateCustomerRequest("Group", "Ana", "group.ana@yahoo.com", "1997-01-02", null)),
+                () -> groupCommit.addCustomer(new CreateCustomerRequest("Group", "Hidden", "group.hidden@yahoo.com", "1997-01-02", null)),
+                () -> groupCommit.addCustomer(new CreateCustomerRequest("Group", "David", "group.david@yahoo.com", "1997-01-02", null)));
+        List<Future<CustomerResponse>> results = runConcurrently(calls);
+
+        assertThat(results.get(0).get().getEmail()).isEqualTo("group.ana@yahoo.com");
+        ExecutionException duplicate = assertThrows(ExecutionException.class, () -> results.get(1).get());
+        assertThat(duplicate.getCause()).hasMessage("This email already exists!");
+        assertThat(results.get(2).get().getEmail()).isEqualTo("group.david@yahoo.com");
+    }
+
+    @Test
+    void savedCustomerIsCachedTest() throws Exception {
+        CustomerResponse saved = groupCommit.addCustomer(new CreateCustomerRequest("Group", "Cached", "group.cached@yahoo.com", "1997-01-02", null));
+
+        assertThat(cacheManager.getCache(CachingConfig.CUSTOMERS_CACHE).get(saved.getId(), CustomerResponse.class)).isEqualTo(saved);
+    }
+
+    @Test
+    void errorOfTheCommitterFailsItsBatchOnlyTest() throws Exception {
+        doThrow(new NoClassDefFoundError("test")).when(customerService).addCustomers(any());
+        try {
+            IllegalStateException failed = assertThrows(IllegalStateException.class, () ->
+                    groupCommit.addCustomer(new CreateCustomerRequest("Group", "Error", "group.error@yahoo.com", "1997-01-02", null)));
+            assertThat(failed.getCause()).isInstanceOf(NoClassDefFoundError.class);
+        } finally {
+            reset(customerService);
+        }
+
+        assertThat(groupCommit.addCustomer(new CreateCustomerRequest("Group", "After", "group.after@yahoo.com", "1997-01-02", null)).getId()).isNotNull();
+    }
+
+    private static List<Future<CustomerResponse>> runConcurrently(List<Callable<CustomerResponse>> calls) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(calls.size());
+        try {
+            return executor.invokeAll(calls);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
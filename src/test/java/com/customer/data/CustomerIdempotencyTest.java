@@ -0,0 +1,58 @@
+package com.customer.data;
+
+import com.customer.data.controller.CustomerController;
+import com.customer.data.repository.CustomerRepositoryJpa;
+import com.customer.data.request.CreateCustomerRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CustomerIdempotencyTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CustomerRepositoryJpa customerRepository;
+
+    @Test
+    void retriedCreationIsSavedOnceTest() throws Exception {
+        String customer = objectMapper.writeValueAsString(
+                new CreateCustomerRequest("Idempotentgabi", "Abrudan", "idempotent.gabi@yahoo.com", "1997-01-02", null));
+
+        MvcResult first = mockMvc.perform(post("/api/v1/customers").header(CustomerController.IDEMPOTENCY_KEY, "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON).content(customer))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(CustomerController.IDEMPOTENT_REPLAYED, "false"))
+                .andReturn();
+        MvcResult retried = mockMvc.perform(post("/api/v1/customers").header(CustomerController.IDEMPOTENCY_KEY, "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON).content(customer))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(CustomerController.IDEMPOTENT_REPLAYED, "true"))
+                .andReturn();
+
+        assertThat(retried.getResponse().getContentAsString()).isEqualTo(first.getResponse().getContentAsString());
+        assertThat(customerRepository.findByEmail("idempotent.gabi@yahoo.com")).hasSize(1);
+
+        mockMvc.perform(post("/api/v1/customers").header(CustomerController.IDEMPOTENCY_KEY, "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CreateCustomerRequest("Idempotentgabi", "Abrudan", "other.gabi@yahoo.com", "1997-01-02", null))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorMessage").value("Idempotency-Key was already used for another customer"));
+    }
+}
@@ -0,0 +1,51 @@
+package com.customer.data;
+
+import com.customer.data.controller.CustomerController;
+import com.customer.data.exception.CustomerValidationException;
+import com.customer.data.metrics.SessionMetricsListener;
+import com.customer.data.request.CreateCustomerRequest;
+import com.customer.data.response.CustomerResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class CustomerMetricsTest {
+
+    @Autowired
+    private CustomerController customerController;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void addCustomerIsTimedByEndpointRepositoryAndPoolTest() throws CustomerValidationException {
+        CustomerResponse created = customerController.addCustomer(
+                new CreateCustomerRequest("Metricgabi", "Abrudan", "metrics.gabi@yahoo.com", "1997-01-02", null), null).getBody();
+        customerController.retrieveById(created.getId(), new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse()));
+
+        assertThat(meterRegistry.get(CustomerController.ENDPOINT_TIMER).tag("method", "addCustomer").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(CustomerController.ENDPOINT_TIMER).tag("method", "retrieveById").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("spring.data.repository.invocations").tag("repository", "CustomerRepositoryJpa")
+                .tag("method", "save").timer().count()).isPositive();
+        assertThat(meterRegistry.get("hikaricp.connections.acquire").timer().count()).isPositive();
+        assertThat(meterRegistry.get("hibernate.statements").tag("status", "prepared").functionCounter().count()).isPositive();
+        assertThat(meterRegistry.get(SessionMetricsListener.JDBC_TIMER).tag("operation", "addCustomer").timer().count()).isPositive();
+        assertThat(meterRegistry.get(SessionMetricsListener.CONNECTION_ACQUIRE_TIMER).tag("operation", "addCustomer").timer().count()).isPositive();
+        assertThat(meterRegistry.get(SessionMetricsListener.STATEMENTS_SUMMARY).tag("operation", "addCustomer").summary().totalAmount()).isPositive();
+    }
+
+    @Test
+    void concurrencyLimitIsPublishedTest() {
+        assertThat(meterRegistry.get("customers.concurrency.limit").gauge().value()).isEqualTo(20);
+        assertThat(meterRegistry.get("customers.concurrency.in.flight").gauge().value()).isZero();
+        assertThat(meterRegistry.get("customers.concurrency.rejected").tag("reason", "limit").functionCounter().count()).isZero();
+        assertThat(meterRegistry.get("customers.concurrency.rejected").tag("reason", "client").functionCounter().count()).isZero();
+    }
+}
@@ -0,0 +1,139 @@
+package com.customer.data;
+
+import com.customer.data.datasource.ReadYourWrites;
+import com.customer.data.request.CreateCustomerRequest;
+import com.customer.data.request.UpdateCustomerRequest;
+import com.customer.data.response.CustomerResponse;
+import com.customer.data.service.CustomerService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Two H2 databases stand for the primary and a replica, the replica receives a copy of the primary only when the test
+ * replicates it, so a read shows which database answered
+ */
+@SpringBootTest(properties = {"customers.replicas.enabled=true", "customers.replicas.max-lag=1m",
+        "spring.datasource.url=jdbc:h2:mem:primarydb",
+        "customers.replicas.urls=" + CustomerReplicaRoutingTest.REPLICA_URL})
+@AutoConfigureMockMvc
+class CustomerReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replicadb;DB_CLOSE_DELAY=-1";
+
+    private static final String PRIMARY_URL = "jdbc:h2:mem:primarydb";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Test
+    void readsGoToTheReplicaUntilTheClientSendsItsWriteTokenTest() throws Exception {
+        CustomerResponse saved = customerService.addCustomer(
+                new CreateCustomerRequest("Replicagabi", "Abrudan", "replica.gabi@yahoo.com", "1997-01-02", null));
+        replicate();
+
+        MvcResult updated = mockMvc.perform(put("/api/v1/customers/{id}", saved.getId()).contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UpdateCustomerRequest("replica.abrudan@yahoo.com", null))))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(ReadYourWrites.TOKEN_HEADER))
+                .andReturn();
+        String token = updated.getResponse().getHeader(ReadYourWrites.TOKEN_HEADER);
+
+        mockMvc.perform(get("/api/v1/customers").param("all", "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(ReadYourWrites.TOKEN_HEADER))
+                .andExpect(jsonPath("$[?(@.id == %s)].email", saved.getId()).value("replica.gabi@yahoo.com"));
+        mockMvc.perform(get("/api/v1/customers").param("all", "true").header(ReadYourWrites.TOKEN_HEADER, token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.id == %s)].email", saved.getId()).value("replica.abrudan@yahoo.com"));
+
+        replicate();
+
+        mockMvc.perform(get("/api/v1/customers").param("all", "true"))
+                .andExpect(jsonPath("$[?(@.id == %s)].email", saved.getId()).value("replica.abrudan@yahoo.com"));
+    }
+
+    @Test
+    void failedWriteHasNoTokenTest() throws Exception {
+        CustomerResponse first = customerService.addCustomer(
+                new CreateCustomerRequest("Replicafirst", "Abrudan", "replica.first@yahoo.com", "1997-01-02", null));
+        CustomerResponse second = customerService.addCustomer(
+                new CreateCustomerRequest("Replicasecond", "Abrudan", "replica.second@yahoo.com", "1997-01-02", null));
+
+        mockMvc.perform(put("/api/v1/customers/{id}", second.getId()).contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UpdateCustomerRequest(first.getEmail(), null))))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().doesNotExist(ReadYourWrites.TOKEN_HEADER));
+    }
+
+    @Test
+    void tokenIsTheCommitTimeTest() throws Exception {
+        CustomerResponse saved = customerService.addCustomer(
+                new CreateCustomerRequest("Replicatime", "Abrudan", "replica.time@yahoo.com", "1997-01-02", null));
+        long before = System.currentTimeMillis();
+
+        MvcResult updated = mockMvc.perform(put("/api/v1/customers/{id}", saved.getId()).contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UpdateCustomerRequest("replica.time2@yahoo.com", null))))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertThat(Long.parseLong(updated.getResponse().getHeader(ReadYourWrites.TOKEN_HEADER)))
+                .isBetween(before, System.currentTimeMillis());
+    }
+
+    @Test
+    void staleWriteTokenReadsFromTheReplicaTest() {
+        String old = String.valueOf(System.currentTimeMillis() - 120_000);
+
+        assertThat(ReadYourWrites.isRecent(old, Duration.ofMinutes(1))).isFalse();
+        assertThat(ReadYourWrites.isRecent(ReadYourWrites.newToken(), Duration.ofMinutes(1))).isTrue();
+        assertThat(ReadYourWrites.isRecent("not-a-token", Duration.ofMinutes(1))).isFalse();
+        assertThat(ReadYourWrites.isRecent(null, Duration.ofMinutes(1))).isFalse();
+    }
+
+    /**
+     * Copy the schema and the rows of the primary database to the replica
+     */
+    private static void replicate() throws SQLException {
+        List<String> statements = new ArrayList<>();
+        try (Connection primary = DriverManager.getConnection(PRIMARY_URL, "sa", "");
+             Statement script = primary.createStatement();
+             ResultSet lines = script.executeQuery("SCRIPT")) {
+            while (lines.next()) {
+                statements.add(lines.getString(1));
+            }
+        }
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = replica.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.customer.data;
+
+import com.customer.data.datasource.ShardContext;
+import com.customer.data.exception.CustomerValidationException;
+import com.customer.data.index.EmailIndex;
+import com.customer.data.index.NamePrefixIndex;
+import com.customer.data.repository.CustomerRepositoryJpa;
+import com.customer.data.request.CreateCustomerRequest;
+import com.customer.data.request.UpdateCustomerRequest;
+import com.customer.data.response.CustomerChangesResponse;
+import com.customer.data.response.CustomerPageResponse;
+import com.customer.data.response.CustomerResponse;
+import com.customer.data.service.CustomerChangeFeed;
+import com.customer.data.service.CustomerService;
+import com.customer.data.service.CustomerShards;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Three H2 databases stand for the shards, the rows of every database show where the customers were saved
+ */
+@SpringBootTest(properties = {"customers.shards.enabled=true", "customers.changes.settle-window=0s",
+        "spring.datasource.url=" + CustomerShardingTest.SHARD_0_URL,
+        "customers.shards.urls=" + CustomerShardingTest.SHARD_1_URL + "," + CustomerShardingTest.SHARD_2_URL})
+class CustomerShardingTest {
+
+    static final String SHARD_0_URL = "jdbc:h2:mem:shard0db;DB_CLOSE_DELAY=-1";
+
+    static final String SHARD_1_URL = "jdbc:h2:mem:shard1db;DB_CLOSE_DELAY=-1";
+
+    static final String SHARD_2_URL = "jdbc:h2:mem:shard2db;DB_CLOSE_DELAY=-1";
+
+    private static final List<String> SHARD_URLS = List.of(SHARD_0_URL, SHARD_1_URL, SHARD_2_URL);
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerChangeFeed changeFeed;
+
+    @Autowired
+    private EmailIndex emailIndex;
+
+    @Autowired
+    private CustomerRepositoryJpa customerRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CustomerShards shards;
+
+    @Test
+    void customersAreSpreadOverTheShardsOfTheirIdsTest() throws Exception {
+        List<CustomerResponse> saved = addCustomers("Spread", 30);
+
+        Set<Integer> usedShards = new HashSet<>();
+        for (int shard = 0; shard < SHARD_URLS.size(); shard++) {
+            for (long id : customerIds(SHARD_URLS.get(shard))) {
+                assertThat(ShardContext.shardOf(id)).isEqualTo(shard);
+                usedShards.add(shard);
+            }
+        }
+        assertThat(usedShards).hasSizeGreaterThan(1);
+
+        for (CustomerResponse customer : saved) {
+            assertThat(customerService.getCustomerById(customer.getId()).getEmail()).isEqualTo(customer.getEmail());
+        }
+        List<Long> ids = customerService.getAll().stream().map(CustomerResponse::getId).toList();
+        assertThat(ids).isSorted().containsAll(saved.stream().map(CustomerResponse::getId).toList());
+    }
+
+    @Test
+    void pagesAndSearchMergeTheShardsTest() throws Exception {
+        List<CustomerResponse> saved = addCustomers("Merged", 12);
+
+        List<Long> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            CustomerPageResponse page = customerService.getPage(cursor, 5);
+            page.getCustomers().forEach(customer -> paged.add(customer.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertThat(paged).isSorted().doesNotHaveDuplicates().containsAll(saved.stream().map(CustomerResponse::getId).toList());
+
+        assertThat(customerService.getCustomerByName("Merged", 100)).extracting(CustomerResponse::getId)
+                .containsExactlyInAnyOrderElementsOf(saved.stream().map(CustomerResponse::getId).toList());
+
+        CustomerChangesResponse changes = changeFeed.getChanges(null, 100);
+        assertThat(changes.getCustomers()).extracting(CustomerResponse::getId).containsAll(saved.stream().map(CustomerResponse::getId).toList());
+    }
+
+    @Test
+    void indexesSearchTheShardsUntilTheyAreLoadedTest() throws Exception {
+        List<Long> ids = addCustomers("Unloaded", 6).stream().map(CustomerResponse::getId).sorted().toList();
+        NamePrefixIndex unloadedNameIndex = new NamePrefixIndex(customerRepository, transactionManager, shards);
+        EmailIndex unloadedEmailIndex = new EmailIndex(customerRepository, transactionManager, shards);
+
+        assertThat(unloadedNameIndex.search("UNLOAD", 4)).isEqualTo(ids.subList(0, 4));
+        assertThat(unloadedNameIndex.search("unl_aded", 10)).isEmpty();
+        assertThat(unloadedEmailIndex.contains("Unloaded3@Yahoo.com")).isTrue();
+        assertThat(unloadedEmailIndex.contains("unloaded9@yahoo.com")).isFalse();
+    }
+
+    @Test
+    void updateWritesToTheShardOfTheCustomerTest() throws Exception {
+        CustomerResponse saved = addCustomers("Updated", 1).get(0);
+
+        customerService.updateCustomer(new UpdateCustomerRequest("updated.shard@yahoo.com", null), saved.getId());
+
+        assertThat(customerService.getCustomerById(saved.getId()).getEmail()).isEqualTo("updated.shard@yahoo.com");
+        assertThat(customerIds(SHARD_URLS.get(ShardContext.shardOf(saved.getId())))).contains(saved.getId());
+    }
+
+    @Test
+    void unknownShardIsNotFoundTest() {
+        long id = ShardContext.encode(1, SHARD_URLS.size());
+
+        CustomerValidationException exception = assertThrows(CustomerValidationException.class, () -> customerService.getCustomerById(id));
+        assertThat(exception.getMessage()).contains("doesn't exist");
+    }
+
+    @Test
+    void emailSavedByAnotherInstanceIsRejectedTest() throws Exception {
+        customerService.addCustomer(new CreateCustomerRequest("Direct", "Shard", "direct.shard@yahoo.com", "1997-01-02", null));
+        // another instance has not seen the customer in its email index
+        emailIndex.remove("direct.shard@yahoo.com");
+
+        for (int i = 0; i < SHARD_URLS.size() * 2; i++) {
+            CustomerValidationException exception = assertThrows(CustomerValidationException.class, () -> customerService.addCustomer(
+                    new CreateCustomerRequest("Other", "Shard", "Direct.Shard@yahoo.com", "1997-01-02", null)));
+            assertThat(exception.getMessage()).isEqualTo("This email already exists!");
+        }
+    }
+
+    @Test
+    void concurrentCustomersWithTheSameEmailSaveOnlyOneTest() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<CustomerResponse>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            int index = i;
+            results.add(executor.submit(() -> {
+                start.await();
+                return customerService.addCustomer(new CreateCustomerRequest("Concurrent", "Abrudan" + index, "concurrent.shard@yahoo.com", "1997-01-02", null));
+            }));
+        }
+        start.countDown();
+
+        int saved = 0;
+        for (Future<CustomerResponse> result : results) {
+            try {
+                result.get(30, TimeUnit.SECONDS);
+                saved++;
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(CustomerValidationException.class).hasMessage("This email already exists!");
+            }
+        }
+        executor.shutdown();
+
+        assertThat(saved).isEqualTo(1);
+        assertThat(customerService.getAll()).filteredOn(customer -> "concurrent.shard@yahoo.com".equals(customer.getEmail())).hasSize(1);
+    }
+
+    @Test
+    void changedEmailIsReleasedTest() throws Exception {
+        CustomerResponse saved = customerService.addCustomer(new CreateCustomerRequest("Released", "Shard", "released.shard@yahoo.com", "1997-01-02", null));
+        customerService.updateCustomer(new UpdateCustomerRequest("moved.shard@yahoo.com", null), saved.getId());
+
+        CustomerResponse other = customerService.addCustomer(new CreateCustomerRequest("Other", "Shard", "released.shard@yahoo.com", "1997-01-02", null));
+
+        assertThat(other.getEmail()).isEqualTo("released.shard@yahoo.com");
+    }
+
+    private List<CustomerResponse> addCustomers(String firstName, int count) throws CustomerValidationException {
+        List<CustomerResponse> saved = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            saved.add(customerService.addCustomer(new CreateCustomerRequest(firstName, "Abrudan" + i,
+                    firstName.toLowerCase() + i + "@yahoo.com", "1997-01-02", null)));
+        }
+        return saved;
+    }
+
+    private static List<Long> customerIds(String url) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (Connection shard = DriverManager.getConnection(url, "sa", "");
+             Statement statement = shard.createStatement();
+             ResultSet rows = statement.executeQuery("select id from customer")) {
+            while (rows.next()) {
+                ids.add(rows.getLong(1));
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,76 @@
+package com.customer.data;
+
+import com.customer.data.exception.CustomerValidationException;
+import com.customer.data.reactive.ReactiveApiLauncher;
+import com.customer.data.request.AddressRequest;
+import com.customer.data.request.CreateCustomerRequest;
+import com.customer.data.response.CustomerResponse;
+import com.customer.data.service.CustomerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"customers.reactive.enabled=true", "customers.reactive.port=0",
+        "spring.r2dbc.url=r2dbc:h2:mem:///testdb", "spring.r2dbc.username=sa"})
+class ReactiveApiTest {
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private ReactiveApiLauncher reactiveApiLauncher;
+
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        webTestClient = WebTestClient.bindToServer().baseUrl("http://localhost:" + reactiveApiLauncher.getPort()).build();
+    }
+
+    @Test
+    void retrieveCustomersSavedByServletApplicationTest() throws CustomerValidationException {
+        AddressRequest addressRequest = new AddressRequest("Rom", "Iasi", "Musatini", "5", "440077");
+        CustomerResponse saved = customerService.addCustomer(
+                new CreateCustomerRequest("Reactivegabi", "Abrudan", "reactive.gabi@yahoo.com", "1997-01-02", addressRequest));
+
+        List<CustomerResponse> all = webTestClient.get().uri("/api/v1/customers").accept(MediaType.APPLICATION_NDJSON).exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(CustomerResponse.class).getResponseBody().collectList().block();
+        assertThat(all).extracting(CustomerResponse::getId).contains(saved.getId());
+
+        webTestClient.get().uri("/api/v1/customers/{id}", saved.getId()).exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.email").isEqualTo("reactive.gabi@yahoo.com")
+                .jsonPath("$.currentLivingAddress.city").isEqualTo("Iasi");
+
+        webTestClient.get().uri("/api/v1/customers/name/{name}", "reactiveg").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].id").isEqualTo(saved.getId());
+    }
+
+    @Test
+    void retrieveNotExistingCustomerTest() {
+        webTestClient.get().uri("/api/v1/customers/{id}", Long.MAX_VALUE).exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.errorMessage").isEqualTo("The customer with id " + Long.MAX_VALUE + " doesn't exist");
+    }
+
+    @Test
+    void searchWithInvalidLimitTest() {
+        webTestClient.get().uri("/api/v1/customers/name/{name}?limit=0", "ga").exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.errorMessage").isEqualTo("Search limit must be between 1 and " + CustomerService.MAX_SEARCH_LIMIT);
+    }
+}
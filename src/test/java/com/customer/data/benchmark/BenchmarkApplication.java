@@ -0,0 +1,56 @@
+package com.customer.data.benchmark;
+
+import com.customer.data.DataApplication;
+import com.customer.data.exception.CustomerValidationException;
+import com.customer.data.request.AddressRequest;
+import com.customer.data.request.CreateCustomerRequest;
+import com.customer.data.service.CustomerService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Application context used by the benchmarks that read from the in-memory H2 database
+ */
+final class BenchmarkApplication {
+
+    private static final int SEED_BATCH_SIZE = 1000;
+
+    private BenchmarkApplication() {
+    }
+
+    /**
+     * Start the application without the web server and without SQL and service logs
+     *
+     * @return the started application context
+     */
+    static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(DataApplication.class).web(WebApplicationType.NONE)
+                .properties("spring.jpa.show-sql=false", "logging.level.com.customer.data=warn").run();
+    }
+
+    /**
+     * Save customers named Name{i} Last{i}, every second one with a living address
+     *
+     * @param customerService - the service used to save the customers
+     * @param customers       - the number of customers to save
+     * @throws CustomerValidationException the error message if a customer can't be saved
+     */
+    static void seed(CustomerService customerService, int customers) throws CustomerValidationException {
+        Map<Integer, CreateCustomerRequest> requests = new LinkedHashMap<>();
+        for (int i = 0; i < customers; i++) {
+            AddressRequest address = i % 2 == 0 ? new AddressRequest("Rom", "Iasi", "Musatini", String.valueOf(i), "440077") : null;
+            requests.put(i, new CreateCustomerRequest("Name" + i, "Last" + i, "customer" + i + "@yahoo.com", "1997-01-02", address));
+            if (requests.size() == SEED_BATCH_SIZE) {
+                customerService.addCustomers(requests);
+                requests.clear();
+            }
+        }
+        if (!requests.isEmpty()) {
+            customerService.addCustomers(requests);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.customer.data.benchmark;
+
+import com.customer.data.entity.Address;
+import com.customer.data.entity.Customer;
+import com.customer.data.repository.CustomerView;
+import com.customer.data.response.CustomerResponse;
+import com.customer.data.service.CustomerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping of one customer to the response, from the entity and from the projection, and the age calculation
+ * Run with: mvn -Pbenchmark verify -Dbenchmark=CustomerMappingBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CustomerMappingBenchmark {
+
+    private CustomerService customerService;
+
+    private Customer customer;
+
+    private CustomerView customerView;
+
+    private LocalDate birthDate;
+
+    @Setup
+    public void setUp() {
+        customerService = new CustomerService(null, null, null, null, null, null);
+        birthDate = LocalDate.of(1997, 1, 2);
+        Instant now = Instant.now();
+        Address address = Address.builder().id(2L).country("Rom").city("Iasi").street("Musatini").houseNumber("5").postalCode("440077").build();
+        customer = Customer.builder().id(1L).firstName("Gabi").lastName("Abrudan").email("gabi@yahoo.com").age(birthDate)
+                .createdOn(now).lastUpdatedOn(now).currentLivingAddress(address).build();
+        customerView = new CustomerView(1L, "Gabi", "Abrudan", "gabi@yahoo.com", birthDate, now, now,
+                2L, "Rom", "Iasi", "Musatini", "5", "440077");
+    }
+
+    @Benchmark
+    public CustomerResponse createResponseFromEntity() {
+        return customerService.createCustomerResponse(customer);
+    }
+
+    @Benchmark
+    public CustomerResponse createResponseFromView() {
+        return customerService.createCustomerResponse(customerView);
+    }
+
+    @Benchmark
+    public int calculateAge() {
+        return CustomerService.calculateAge(birthDate);
+    }
+}
@@ -0,0 +1,58 @@
+package com.customer.data.benchmark;
+
+import com.customer.data.validation.DateValidator;
+import com.customer.data.validation.DateValidatorUsingDateFormat;
+import com.customer.data.validation.IsoDateValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation of the birth date sent by the client, for a valid and for an invalid date,
+ * with the SimpleDateFormat validator used before and with the ISO parser of the requests
+ * Run with: mvn -Pbenchmark verify -Dbenchmark=DateValidatorBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DateValidatorBenchmark {
+
+    private final DateValidator validator = new DateValidatorUsingDateFormat("yyyy-MM-dd");
+
+    private final DateValidator isoValidator = new IsoDateValidator();
+
+    private String validDate = "1997-01-02";
+
+    private String invalidDate = "1997-02-30";
+
+    @Benchmark
+    public boolean validDate() {
+        return validator.isValid(validDate);
+    }
+
+    @Benchmark
+    public boolean invalidDate() {
+        return validator.isValid(invalidDate);
+    }
+
+    @Benchmark
+    public boolean isoValidDate() {
+        return isoValidator.isValid(validDate);
+    }
+
+    @Benchmark
+    public boolean isoInvalidDate() {
+        return isoValidator.isValid(invalidDate);
+    }
+}
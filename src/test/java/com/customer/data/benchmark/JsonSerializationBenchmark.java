@@ -0,0 +1,97 @@
+package com.customer.data.benchmark;
+
+import com.customer.data.response.AddressResponse;
+import com.customer.data.response.CustomerResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of customer lists, as a JSON array like the list endpoints and as NDJSON like the export,
+ * and as the CBOR and Smile arrays sent to the clients asking for a binary format
+ * The ObjectMapper is built with the same defaults Spring Boot uses for the controllers
+ * Run with: mvn -Pbenchmark verify -Dbenchmark=JsonSerializationBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"1", "100", "1000"})
+    private int customers;
+
+    private ObjectMapper objectMapper;
+
+    private ObjectMapper cborMapper;
+
+    private ObjectMapper smileMapper;
+
+    private List<CustomerResponse> customerList;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        cborMapper = Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+        smileMapper = Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+        Instant now = Instant.now();
+        customerList = new ArrayList<>(customers);
+        for (int i = 0; i < customers; i++) {
+            CustomerResponse customer = CustomerResponse.builder().id((long) i).firstName("Name" + i).lastName("Last" + i)
+                    .email("customer" + i + "@yahoo.com").age(27).createdOn(now).lastUpdatedOn(now).build();
+            if (i % 2 == 0) {
+                customer.setCurrentLivingAddress(AddressResponse.builder().country("Rom").city("Iasi").street("Musatini")
+                        .houseNumber(String.valueOf(i)).postalCode("440077").build());
+            }
+            customerList.add(customer);
+        }
+    }
+
+    @Benchmark
+    public byte[] jsonArray() throws IOException {
+        return objectMapper.writeValueAsBytes(customerList);
+    }
+
+    @Benchmark
+    public byte[] cborArray() throws IOException {
+        return cborMapper.writeValueAsBytes(customerList);
+    }
+
+    @Benchmark
+    public byte[] smileArray() throws IOException {
+        return smileMapper.writeValueAsBytes(customerList);
+    }
+
+    @Benchmark
+    public void ndjson() throws IOException {
+        try (JsonGenerator generator = objectMapper.createGenerator(OutputStream.nullOutputStream())) {
+            generator.setRootValueSeparator(null);
+            for (CustomerResponse customer : customerList) {
+                generator.writeObject(customer);
+                generator.writeRaw('\n');
+            }
+        }
+    }
+}
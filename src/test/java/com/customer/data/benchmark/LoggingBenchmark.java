@@ -0,0 +1,106 @@
+package com.customer.data.benchmark;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.ThreadContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logging cost of returning a list of customers, as seen by the request thread
+ * The perRowInfo benchmarks log four info lines per customer, like the mapping did before the row logger,
+ * once with the synchronous configuration and once with the async loggers of the async-logging profile
+ * The perRowTrace benchmark logs the row detail at trace on the row logger, which is disabled by default
+ * The producer blocks when the ring buffer is full, so the async numbers are sustained throughput and not the
+ * cost of dropping events
+ * Run with: mvn -Pbenchmark verify -Dbenchmark=LoggingBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LoggingBenchmark {
+
+    private static final String SYNC_CONFIG = "-Dlog4j2.configurationFile=benchmark/log4j2-sync.xml";
+
+    private static final String ASYNC_CONFIG = "-Dlog4j2.configurationFile=benchmark/log4j2-async.xml";
+
+    private static final String BLOCK_WHEN_FULL = "-Dlog4j2.asyncQueueFullPolicy=Default";
+
+    private static final int ROWS = 100;
+
+    private static final Logger logger = LogManager.getLogger("com.customer.data.service.CustomerService");
+
+    private static final Logger rowLogger = LogManager.getLogger("com.customer.data.service.CustomerService.rows");
+
+    private final LocalDate birthDate = LocalDate.of(1996, 5, 20);
+
+    @Setup
+    public void setUp() {
+        ThreadContext.put("correlationId", UUID.randomUUID().toString());
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {SYNC_CONFIG, BLOCK_WHEN_FULL})
+    public int perRowInfoSync() {
+        return logRowsAtInfo();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {ASYNC_CONFIG, BLOCK_WHEN_FULL})
+    public int perRowInfoAsync() {
+        return logRowsAtInfo();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {SYNC_CONFIG, BLOCK_WHEN_FULL})
+    public int perRowTraceSync() {
+        return logRowsAtTrace();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {ASYNC_CONFIG, BLOCK_WHEN_FULL})
+    public int perRowTraceAsync() {
+        return logRowsAtTrace();
+    }
+
+    private int logRowsAtInfo() {
+        logger.info("Getting all customers.");
+        int ages = 0;
+        for (long id = 1; id <= ROWS; id++) {
+            logger.info("Transform the Customer object in Customer Response object.");
+            logger.info("Calculate the age based on birthdate.");
+            logger.info("Get the age of the customer.");
+            ages += birthDate.getYear();
+            logger.info("Send the customer response object.");
+        }
+        logger.info("Send list of all customers to client.");
+        return ages;
+    }
+
+    private int logRowsAtTrace() {
+        logger.info("Getting all customers.");
+        int ages = 0;
+        for (long id = 1; id <= ROWS; id++) {
+            rowLogger.trace("Transform the Customer object with id: {} in Customer Response object.", id);
+            int age = birthDate.getYear();
+            rowLogger.trace("Calculated the age {} for birthdate {}.", age, birthDate);
+            ages += age;
+        }
+        logger.debug("Send list of all customers to client.");
+        return ages;
+    }
+}
@@ -0,0 +1,98 @@
+package com.customer.data.benchmark;
+
+import com.customer.data.exception.CustomerValidationException;
+import com.customer.data.index.NamePrefixIndex;
+import com.customer.data.repository.CustomerRepositoryJpa;
+import com.customer.data.response.CustomerResponse;
+import com.customer.data.service.CustomerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Read path of the list and search endpoints, loading managed entities against selecting the CustomerView projection
+ * The entity benchmarks run the queries the service used before the projection, with the entity mapping of the service
+ * Half of the customers have a living address
+ * Run with: mvn -Pbenchmark verify -Dbenchmark=ReadPathBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadPathBenchmark {
+
+    private static final String SEARCH_PREFIX = "name1";
+
+    private static final int SEARCH_LIMIT = 100;
+
+    @Param({"5000"})
+    private int customers;
+
+    private ConfigurableApplicationContext context;
+
+    private CustomerService customerService;
+
+    private CustomerRepositoryJpa customerRepository;
+
+    private NamePrefixIndex nameIndex;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @Setup(Level.Trial)
+    public void setUp() throws CustomerValidationException {
+        context = BenchmarkApplication.start();
+        customerService = context.getBean(CustomerService.class);
+        customerRepository = context.getBean(CustomerRepositoryJpa.class);
+        nameIndex = context.getBean(NamePrefixIndex.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        BenchmarkApplication.seed(customerService, customers);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<CustomerResponse> listEntities() {
+        return readOnlyTransaction.execute(status -> customerRepository.findAll().stream()
+                .map(customerService::createCustomerResponse).collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public List<CustomerResponse> listProjections() {
+        return customerService.getAll();
+    }
+
+    @Benchmark
+    public List<CustomerResponse> searchEntities() {
+        return readOnlyTransaction.execute(status -> customerRepository.findAllById(nameIndex.search(SEARCH_PREFIX, SEARCH_LIMIT)).stream()
+                .map(customerService::createCustomerResponse).collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public List<CustomerResponse> searchProjections() throws CustomerValidationException {
+        return customerService.getCustomerByName(SEARCH_PREFIX, SEARCH_LIMIT);
+    }
+}
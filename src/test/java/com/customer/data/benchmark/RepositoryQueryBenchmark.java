@@ -0,0 +1,91 @@
+package com.customer.data.benchmark;
+
+import com.customer.data.exception.CustomerValidationException;
+import com.customer.data.repository.CustomerRepositoryJpa;
+import com.customer.data.repository.CustomerView;
+import com.customer.data.service.CustomerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Repository queries of the read endpoints against the in-memory H2 database
+ * Run with: mvn -Pbenchmark verify -Dbenchmark=RepositoryQueryBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryQueryBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    private static final int SEARCH_LIMIT = 20;
+
+    @Param({"10000"})
+    private int customers;
+
+    private ConfigurableApplicationContext context;
+
+    private CustomerRepositoryJpa customerRepository;
+
+    private long firstId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws CustomerValidationException {
+        context = BenchmarkApplication.start();
+        customerRepository = context.getBean(CustomerRepositoryJpa.class);
+        BenchmarkApplication.seed(context.getBean(CustomerService.class), customers);
+        firstId = customerRepository.findViewsAfterId(0L, Limit.of(1)).get(0).id();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<CustomerView> findViewById() {
+        return customerRepository.findViewById(randomId());
+    }
+
+    @Benchmark
+    public List<CustomerView> findPageAfterId() {
+        return customerRepository.findViewsAfterId(randomId(), Limit.of(PAGE_SIZE + 1));
+    }
+
+    @Benchmark
+    public List<CustomerView> findViewsByIds() {
+        long from = randomId();
+        return customerRepository.findViewsByIdIn(LongStream.range(from, from + SEARCH_LIMIT).boxed().toList());
+    }
+
+    @Benchmark
+    public List<CustomerView> findAllViews() {
+        return customerRepository.findAllViews();
+    }
+
+    private long randomId() {
+        return firstId + ThreadLocalRandom.current().nextInt(customers);
+    }
+}
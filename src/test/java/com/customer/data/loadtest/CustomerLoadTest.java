@@ -0,0 +1,135 @@
+package com.customer.data.loadtest;
+
+import com.customer.data.request.AddressRequest;
+import com.customer.data.request.CreateCustomerRequest;
+import com.customer.data.request.UpdateCustomerRequest;
+import com.customer.data.response.BatchCustomerResponse;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end load test of the customer endpoints, through HTTP against the application on a random port
+ * The concurrency limit is disabled, so every request reaches the service and any error is a failure of the service
+ * Only runs when asked for, the settings are described in {@link LoadTestSettings}:
+ * mvn test -Dtest=CustomerLoadTest -Dloadtest=true -Dloadtest.rate=300 -Dloadtest.duration=120
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.jpa.show-sql=false", "logging.level.com.customer.data=warn", "customers.concurrency-limit.enabled=false"})
+class CustomerLoadTest {
+
+    private static final String CUSTOMERS_PATH = "/api/v1/customers";
+
+    private static final int SEED_BATCH_SIZE = 1000;
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5)).build();
+
+    private final AtomicLong emailSequence = new AtomicLong();
+
+    private long[] customerIds;
+
+    @Test
+    void customerEndpointsLoadTest() throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        customerIds = seed(settings.customers());
+
+        LoadTestResult result = new OpenModelLoadGenerator(settings).run(this::call);
+        result.write();
+        result.print(System.out);
+
+        assertThat(result.completed()).isEqualTo(result.scheduled());
+        assertThat(result.errors()).isZero();
+    }
+
+    private boolean call(LoadTestOperation operation) throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        HttpRequest request = switch (operation) {
+            case CREATE -> post(CUSTOMERS_PATH, newCustomer("load"));
+            case UPDATE -> put(CUSTOMERS_PATH + "/" + randomId(random),
+                    new UpdateCustomerRequest("updated" + emailSequence.incrementAndGet() + "@yahoo.com", null));
+            case GET -> get(CUSTOMERS_PATH + "/" + randomId(random));
+            case SEARCH -> get(CUSTOMERS_PATH + "/name/name" + random.nextInt(Math.max(1, customerIds.length / 100)));
+            case LIST -> get(CUSTOMERS_PATH + "?size=50");
+        };
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        return response.statusCode() / 100 == 2;
+    }
+
+    private long[] seed(int customers) throws IOException, InterruptedException {
+        List<Long> ids = new ArrayList<>(customers);
+        List<CreateCustomerRequest> batch = new ArrayList<>(SEED_BATCH_SIZE);
+        for (int i = 0; i < customers; i++) {
+            batch.add(newCustomer("name" + i));
+            if (batch.size() == SEED_BATCH_SIZE || i == customers - 1) {
+                HttpResponse<String> response = httpClient.send(post(CUSTOMERS_PATH + "/batch", batch), HttpResponse.BodyHandlers.ofString());
+                assertThat(response.statusCode()).isEqualTo(200);
+                for (BatchCustomerResponse saved : objectMapper.readValue(response.body(), new TypeReference<List<BatchCustomerResponse>>() {
+                })) {
+                    assertThat(saved.getStatus()).isEqualTo(BatchCustomerResponse.Status.CREATED);
+                    ids.add(saved.getCustomer().getId());
+                }
+                batch.clear();
+            }
+        }
+        assertThat(ids).isNotEmpty();
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private CreateCustomerRequest newCustomer(String firstName) {
+        long sequence = emailSequence.incrementAndGet();
+        AddressRequest address = sequence % 2 == 0 ? new AddressRequest("Rom", "Iasi", "Musatini", String.valueOf(sequence), "440077") : null;
+        return new CreateCustomerRequest(firstName, "Last" + sequence, "customer" + sequence + "@yahoo.com", "1997-01-02", address);
+    }
+
+    private long randomId(ThreadLocalRandom random) {
+        return customerIds[random.nextInt(customerIds.length)];
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest post(String path, Object body) throws IOException {
+        return request(path).header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body))).build();
+    }
+
+    private HttpRequest put(String path, Object body) throws IOException {
+        return request(path).header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body))).build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).timeout(REQUEST_TIMEOUT)
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
+    }
+}
@@ -0,0 +1,12 @@
+package com.customer.data.loadtest;
+
+/**
+ * The calls made by the load test, one latency histogram is recorded for each
+ */
+enum LoadTestOperation {
+    CREATE,
+    UPDATE,
+    GET,
+    SEARCH,
+    LIST
+}
@@ -0,0 +1,86 @@
+package com.customer.data.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and errors of the measured calls of a load test
+ */
+class LoadTestResult {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final LoadTestSettings settings;
+
+    private final long scheduled;
+
+    private final Map<LoadTestOperation, Histogram> latencies;
+
+    private final Map<LoadTestOperation, LongAdder> errors;
+
+    LoadTestResult(LoadTestSettings settings, long scheduled, Map<LoadTestOperation, Histogram> latencies,
+                   Map<LoadTestOperation, LongAdder> errors) {
+        this.settings = settings;
+        this.scheduled = scheduled;
+        this.latencies = latencies;
+        this.errors = errors;
+    }
+
+    long scheduled() {
+        return scheduled;
+    }
+
+    long completed() {
+        return latencies.values().stream().mapToLong(Histogram::getTotalCount).sum();
+    }
+
+    long errors() {
+        return errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    /**
+     * Write the summary of every operation followed by its full percentile distribution, in milliseconds
+     * The distributions can be plotted with the HdrHistogram plotter
+     *
+     * @param out - the stream to write to
+     */
+    void print(PrintStream out) {
+        out.printf("customers=%d rate=%.1f/s warmup=%ds duration=%ds clients=%d mix=%s%n", settings.customers(),
+                settings.rate(), settings.warmup().toSeconds(), settings.duration().toSeconds(), settings.clients(), settings.mix());
+        out.printf("scheduled=%d completed=%d errors=%d throughput=%.1f/s%n%n", scheduled, completed(), errors(),
+                completed() / (double) settings.duration().toSeconds());
+        out.printf("%-8s %8s %7s %9s %9s %9s %9s %9s %9s%n", "endpoint", "count", "errors", "p50 ms", "p90 ms", "p99 ms",
+                "p99.9 ms", "max ms", "mean ms");
+        latencies.forEach((operation, histogram) -> out.printf("%-8s %8d %7d %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                operation.name().toLowerCase(), histogram.getTotalCount(), errors.get(operation).sum(),
+                millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                histogram.getMaxValue() / MICROS_PER_MILLI, histogram.getMean() / MICROS_PER_MILLI));
+        latencies.forEach((operation, histogram) -> {
+            out.printf("%n# %s%n", operation.name().toLowerCase());
+            histogram.outputPercentileDistribution(out, MICROS_PER_MILLI);
+        });
+    }
+
+    /**
+     * Write the report to the report file of the settings
+     *
+     * @throws IOException if the file can't be written
+     */
+    void write() throws IOException {
+        Path report = settings.report().toAbsolutePath();
+        Files.createDirectories(report.getParent());
+        try (PrintStream out = new PrintStream(Files.newOutputStream(report), false, "UTF-8")) {
+            print(out);
+        }
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+}
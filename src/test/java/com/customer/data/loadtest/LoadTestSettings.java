@@ -0,0 +1,59 @@
+package com.customer.data.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Settings of the load test, read from the loadtest.* system properties
+ *
+ * @param customers - the number of customers saved before the test, loadtest.customers
+ * @param rate      - the number of requests started per second, whatever the response times are, loadtest.rate
+ * @param warmup    - the time during which the responses are not recorded, loadtest.warmup in seconds
+ * @param duration  - the recorded time, loadtest.duration in seconds
+ * @param clients   - the maximum number of requests in flight, loadtest.clients
+ * @param mix       - the weight of each operation, loadtest.mix as create=5,update=5,get=60,search=20,list=10
+ * @param report    - the report file, loadtest.report
+ */
+record LoadTestSettings(int customers, double rate, Duration warmup, Duration duration, int clients,
+                        Map<LoadTestOperation, Integer> mix, Path report) {
+
+    private static final String DEFAULT_MIX = "create=5,update=5,get=60,search=20,list=10";
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Integer.getInteger("loadtest.customers", 10000),
+                Double.parseDouble(System.getProperty("loadtest.rate", "200")),
+                Duration.ofSeconds(Long.getLong("loadtest.warmup", 10)),
+                Duration.ofSeconds(Long.getLong("loadtest.duration", 60)),
+                Integer.getInteger("loadtest.clients", 200),
+                parseMix(System.getProperty("loadtest.mix", DEFAULT_MIX)),
+                Path.of(System.getProperty("loadtest.report", "target/loadtest-report.txt")));
+    }
+
+    /**
+     * Parse the operation weights, the operations that are not listed are not called
+     *
+     * @param mix - the weights as operation=weight separated by commas
+     * @return the weight of each operation
+     */
+    static Map<LoadTestOperation, Integer> parseMix(String mix) {
+        Map<LoadTestOperation, Integer> weights = new EnumMap<>(LoadTestOperation.class);
+        for (String entry : mix.split(",")) {
+            String[] operationAndWeight = entry.trim().split("=");
+            if (operationAndWeight.length != 2) {
+                throw new IllegalArgumentException("Invalid load test mix entry: " + entry);
+            }
+            int weight = Integer.parseInt(operationAndWeight[1].trim());
+            if (weight > 0) {
+                weights.put(LoadTestOperation.valueOf(operationAndWeight[0].trim().toUpperCase()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("The load test mix has no operation: " + mix);
+        }
+        return Collections.unmodifiableMap(weights);
+    }
+}
@@ -0,0 +1,129 @@
+package com.customer.data.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Start the calls at random times with a constant average rate (Poisson arrivals), like independent users do,
+ * instead of waiting for a response before sending the next request
+ * The latency of a call is measured from the time it was scheduled, so the time spent waiting for a free client
+ * while the application is slow is part of the recorded latency
+ */
+class OpenModelLoadGenerator {
+
+    private static final long HIGHEST_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    /**
+     * A call of the application
+     */
+    @FunctionalInterface
+    interface Call {
+
+        /**
+         * @param operation - the operation to call
+         * @return true if the application answered with a success status
+         * @throws Exception the error of the call
+         */
+        boolean run(LoadTestOperation operation) throws Exception;
+    }
+
+    private final LoadTestSettings settings;
+
+    private final Map<LoadTestOperation, Histogram> latencies = new EnumMap<>(LoadTestOperation.class);
+
+    private final Map<LoadTestOperation, LongAdder> errors = new EnumMap<>(LoadTestOperation.class);
+
+    private final LoadTestOperation[] operations;
+
+    private final int[] cumulativeWeights;
+
+    OpenModelLoadGenerator(LoadTestSettings settings) {
+        this.settings = settings;
+        this.operations = settings.mix().keySet().toArray(LoadTestOperation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += settings.mix().get(operations[i]);
+            cumulativeWeights[i] = total;
+            latencies.put(operations[i], new ConcurrentHistogram(HIGHEST_LATENCY_MICROS, SIGNIFICANT_DIGITS));
+            errors.put(operations[i], new LongAdder());
+        }
+    }
+
+    /**
+     * Send the calls during the warmup and the measured duration, then wait for the calls in flight
+     *
+     * @param call - the call of the application
+     * @return the latencies and errors of the calls scheduled after the warmup
+     * @throws InterruptedException if the test is interrupted
+     */
+    LoadTestResult run(Call call) throws InterruptedException {
+        ExecutorService clients = Executors.newFixedThreadPool(settings.clients());
+        Random random = new Random();
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / settings.rate();
+        long start = System.nanoTime();
+        long measureFrom = start + settings.warmup().toNanos();
+        long end = measureFrom + settings.duration().toNanos();
+        long scheduled = 0;
+        long next = start;
+        try {
+            while (next < end) {
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                long intendedStart = next;
+                LoadTestOperation operation = pickOperation(random);
+                clients.execute(() -> call(call, operation, intendedStart, intendedStart >= measureFrom));
+                if (intendedStart >= measureFrom) {
+                    scheduled++;
+                }
+                next += (long) (-Math.log(1 - random.nextDouble()) * meanIntervalNanos);
+            }
+        } finally {
+            clients.shutdown();
+        }
+        if (!clients.awaitTermination(HIGHEST_LATENCY_MICROS, TimeUnit.MICROSECONDS)) {
+            clients.shutdownNow();
+        }
+        return new LoadTestResult(settings, scheduled, latencies, errors);
+    }
+
+    private void call(Call call, LoadTestOperation operation, long intendedStart, boolean measured) {
+        boolean success;
+        try {
+            success = call.run(operation);
+        } catch (Exception e) {
+            success = false;
+        }
+        if (!measured) {
+            return;
+        }
+        long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart);
+        latencies.get(operation).recordValue(Math.min(latencyMicros, HIGHEST_LATENCY_MICROS));
+        if (!success) {
+            errors.get(operation).increment();
+        }
+    }
+
+    private LoadTestOperation pickOperation(Random random) {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+}
@@ -0,0 +1,91 @@
+package com.customer.data.unittest;
+
+import com.customer.data.filter.ConcurrencyLimitFilter;
+import com.customer.data.filter.GradientConcurrencyLimit;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConcurrencyLimitFilterUnitTest {
+
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, 1, 1);
+
+    @Test
+    void requestUnderTheLimitIsServedTest() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/customers/1"), new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isNotNull();
+        assertThat(filter.getLimit().getInFlight()).isZero();
+    }
+
+    @Test
+    void requestOverTheLimitIsRejectedTest() throws Exception {
+        GradientConcurrencyLimit.Permit inProgress = filter.getLimit().tryAcquire("other");
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/customers");
+        request.addHeader(ConcurrencyLimitFilter.CLIENT_ID_HEADER, "billing");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(chain.getRequest()).isNull();
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(response.getContentAsString()).isEqualTo("{\"errorMessage\":\"Too many requests, retry later\"}");
+        assertThat(filter.getLimit().getRejectedByLimit()).isEqualTo(1);
+        inProgress.releaseWithoutSample();
+    }
+
+    @Test
+    void newClientIdsShareTheAddressTest() throws Exception {
+        ConcurrencyLimitFilter limited = new ConcurrencyLimitFilter(4, 4, 4);
+        limited.getLimit().tryAcquire("10.0.0.2", "honest");
+        GradientConcurrencyLimit.Permit inProgress = limited.getLimit().tryAcquire("127.0.0.1", "first");
+        limited.getLimit().tryAcquire("127.0.0.1", "first");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/customers/1");
+        request.addHeader(ConcurrencyLimitFilter.CLIENT_ID_HEADER, "second");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        limited.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(limited.getLimit().getRejectedByClientShare()).isEqualTo(1);
+        inProgress.releaseWithoutSample();
+    }
+
+    @Test
+    void sizeDependentRequestsDoNotMoveTheLimitTest() throws Exception {
+        MockHttpServletRequest batch = new MockHttpServletRequest("POST", "/api/v1/customers/batch");
+        MockHttpServletRequest all = new MockHttpServletRequest("GET", "/api/v1/customers");
+        all.setParameter("all", "true");
+
+        for (MockHttpServletRequest request : new MockHttpServletRequest[]{batch, all}) {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        }
+
+        assertThat(filter.getLimit().getLongRtt(TimeUnit.NANOSECONDS)).isZero();
+        assertThat(filter.getLimit().getInFlight()).isZero();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/customers/1"), new MockHttpServletResponse(), new MockFilterChain());
+        assertThat(filter.getLimit().getLongRtt(TimeUnit.NANOSECONDS)).isPositive();
+    }
+
+    @Test
+    void eventStreamAndOtherPathsAreNotLimitedTest() throws Exception {
+        filter.getLimit().tryAcquire("other");
+
+        for (String path : new String[]{"/api/v1/customers/events", "/actuator/health", "/api/v1/customersx"}) {
+            MockFilterChain chain = new MockFilterChain();
+            filter.doFilter(new MockHttpServletRequest("GET", path), new MockHttpServletResponse(), chain);
+            assertThat(chain.getRequest()).isNotNull();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.customer.data.unittest;
+
+import com.customer.data.filter.CorrelationIdFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CorrelationIdFilterUnitTest {
+
+    private final CorrelationIdFilter filter = new CorrelationIdFilter();
+
+    @Test
+    void correlationIdOfTheClientIsKeptTest() throws Exception {
+        assertThat(correlationIdFor("order-42_retry.1")).isEqualTo("order-42_retry.1");
+    }
+
+    @Test
+    void invalidCorrelationIdIsReplacedTest() throws Exception {
+        for (String correlationId : new String[]{"forged\n2024-04-23 INFO admin logged in", "a b", "id%0d%0a", "", "x".repeat(65)}) {
+            String used = correlationIdFor(correlationId);
+
+            assertThat(used).isNotEqualTo(correlationId).matches("[0-9a-f-]{36}");
+        }
+    }
+
+    private String correlationIdFor(String correlationId) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/customers/1");
+        request.addHeader(CorrelationIdFilter.CORRELATION_ID_HEADER, correlationId);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(request.getAttribute(CorrelationIdFilter.CORRELATION_ID_KEY)).isEqualTo(response.getHeader(CorrelationIdFilter.CORRELATION_ID_HEADER));
+        return response.getHeader(CorrelationIdFilter.CORRELATION_ID_HEADER);
+    }
+}
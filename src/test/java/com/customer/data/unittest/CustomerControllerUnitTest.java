@@ -5,9 +5,17 @@ import com.customer.data.request.AddressRequest;
 import com.customer.data.request.CreateCustomerRequest;
 import com.customer.data.request.UpdateCustomerRequest;
 import com.customer.data.response.AddressResponse;
+import com.customer.data.response.BatchCustomerResponse;
+import com.customer.data.response.CustomerPageResponse;
 import com.customer.data.response.CustomerResponse;
+import com.customer.data.service.CustomerListVersion;
+import com.customer.data.service.CustomerChangeFeed;
+import com.customer.data.service.CustomerIdempotencyStore;
 import com.customer.data.service.CustomerService;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -15,9 +23,13 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Java6Assertions.*;
 import static org.mockito.BDDMockito.given;
@@ -37,6 +49,15 @@ public class CustomerControllerUnitTest {
     @MockBean
     private CustomerService customerService;
 
+    @MockBean
+    private CustomerListVersion listVersion;
+
+    @MockBean
+    private CustomerChangeFeed changeFeed;
+
+    @MockBean
+    private CustomerIdempotencyStore idempotencyStore;
+
     @Test
     void getAllCustomerControllerTest() throws Exception {
 
@@ -49,6 +70,7 @@ public class CustomerControllerUnitTest {
         given(customerService.getAll()).willReturn(allEmployees);
 
         MvcResult mvcResult = mockMvc.perform(get("/api/v1/customers")
+                        .param("all", "true")
                         .contentType("application/json"))
                 .andExpect(status().isOk())
                 .andReturn();
@@ -60,6 +82,56 @@ public class CustomerControllerUnitTest {
 
     }
 
+    @Test
+    void getPageCustomerControllerTest() throws Exception {
+
+        AddressResponse addressResponse = new AddressResponse();
+        CustomerResponse response = CustomerResponse.builder().id(1L).firstName("Gabi").lastName("Abrudan").email("gabi@yahoo.com")
+                .age(27).currentLivingAddress(addressResponse).build();
+        CustomerPageResponse page = CustomerPageResponse.builder().customers(List.of(response)).nextCursor("aWQ6MQ").build();
+
+        given(customerService.getPage("aWQ6MA", 1)).willReturn(page);
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/v1/customers")
+                        .param("cursor", "aWQ6MA")
+                        .param("size", "1")
+                        .contentType("application/json"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        String actualResponseBody = mvcResult.getResponse().getContentAsString();
+        assertThat(actualResponseBody).isEqualToIgnoringWhitespace(
+                objectMapper.writeValueAsString(page));
+
+    }
+
+    @Test
+    void exportCustomersControllerTest() throws Exception {
+
+        CustomerResponse first = CustomerResponse.builder().id(1L).firstName("Gabi").lastName("Abrudan").email("gabi@yahoo.com").age(27).build();
+        CustomerResponse second = CustomerResponse.builder().id(2L).firstName("David").lastName("MMM").age(30).build();
+
+        doAnswer(invocation -> {
+            Consumer<CustomerResponse> consumer = invocation.getArgument(0);
+            consumer.accept(first);
+            consumer.accept(second);
+            return null;
+        }).when(customerService).exportAll(any());
+
+        MvcResult asyncResult = mockMvc.perform(get("/api/v1/customers/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MvcResult mvcResult = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn();
+
+        String expectedResponseBody = objectMapper.writeValueAsString(first) + "\n" + objectMapper.writeValueAsString(second) + "\n";
+        assertThat(mvcResult.getResponse().getContentAsString()).isEqualTo(expectedResponseBody);
+
+    }
+
     @Test
     void addCustomerTest() throws Exception {
 
@@ -84,6 +156,59 @@ public class CustomerControllerUnitTest {
 
     }
 
+    @Test
+    void addCustomerWithIdempotencyKeyTest() throws Exception {
+
+        CreateCustomerRequest request = new CreateCustomerRequest("Gabi", "Abrudan", "gabi@yahoo.com", "1997-01-02", null);
+        CustomerResponse response = CustomerResponse.builder().id(1L).firstName("Gabi").lastName("Abrudan").email("gabi@yahoo.com").age(27).build();
+
+        given(idempotencyStore.createOnce(eq("key-1"), any(), any())).willReturn(new CustomerIdempotencyStore.Result(response, true));
+
+        MvcResult mvcResult = mockMvc.perform(post("/api/v1/customers")
+                        .header(CustomerController.IDEMPOTENCY_KEY, "key-1")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(CustomerController.IDEMPOTENT_REPLAYED, "true"))
+                .andReturn();
+
+        assertThat(mvcResult.getResponse().getContentAsString()).isEqualToIgnoringWhitespace(objectMapper.writeValueAsString(response));
+        verify(customerService, never()).addCustomer(any());
+
+    }
+
+    @Test
+    void addCustomersBatchTest() throws Exception {
+
+        String requestDate = "1997-01-02";
+        AddressRequest addressRequest = new AddressRequest("Rom", "Iasi", "Musatini", "5", "440077");
+        CreateCustomerRequest valid = new CreateCustomerRequest("Gabi", "Abrudan", "gabi@yahoo.com", requestDate, addressRequest);
+        CreateCustomerRequest emptyFirstName = new CreateCustomerRequest("", "Abrudan", "gabi@yahoo.com", requestDate, addressRequest);
+        CreateCustomerRequest wrongDate = new CreateCustomerRequest("Gabi", "Abrudan", "gabi@yahoo.com", "1997/01/02", addressRequest);
+        CustomerResponse response = CustomerResponse.builder().id(1L).firstName("Gabi").lastName("Abrudan").email("gabi@yahoo.com").age(27).build();
+        BatchCustomerResponse created = BatchCustomerResponse.builder().index(1).status(BatchCustomerResponse.Status.CREATED).customer(response).build();
+
+        given(customerService.addCustomers(anyMap())).willReturn(new ArrayList<>(List.of(created)));
+
+        MvcResult mvcResult = mockMvc.perform(post("/api/v1/customers/batch")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(List.of(emptyFirstName, valid, wrongDate))))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        List<BatchCustomerResponse> expectedResponseBody = List.of(
+                BatchCustomerResponse.builder().index(0).status(BatchCustomerResponse.Status.FAILED)
+                        .errorMessage("firstName: First name cannot be empty or null").build(),
+                created,
+                BatchCustomerResponse.builder().index(2).status(BatchCustomerResponse.Status.FAILED)
+                        .errorMessage("Birth date must be in yyyy-MM-dd format").build());
+        String actualResponseBody = mvcResult.getResponse().getContentAsString();
+        assertThat(actualResponseBody).isEqualToIgnoringWhitespace(
+                objectMapper.writeValueAsString(expectedResponseBody));
+        verify(customerService).addCustomers(argThat(customers -> customers.keySet().equals(Set.of(1))));
+
+    }
+
     @Test
     void updateCustomerTest() throws Exception {
 
@@ -144,7 +269,7 @@ public class CustomerControllerUnitTest {
 
         List<CustomerResponse> allEmployees = List.of(response);
 
-        given(customerService.getCustomerByName(any())).willReturn(allEmployees);
+        given(customerService.getCustomerByName(any(), eq(20))).willReturn(allEmployees);
 
         MvcResult mvcResult = mockMvc.perform(get("/api/v1/customers/name/" + name)
                         .contentType("application/json")
@@ -292,4 +417,53 @@ public class CustomerControllerUnitTest {
         assertThat(actualResponseBody).isEqualToIgnoringWhitespace(expectedResponseBody);
     }
 
+
+    @Test
+    void getAllCustomersAsCborTest() throws Exception {
+
+        CustomerResponse response = CustomerResponse.builder().id(1L).firstName("Gabi").lastName("Abrudan").email("gabi@yahoo.com")
+                .age(27).createdOn(Instant.parse("2024-01-02T10:15:30Z")).build();
+
+        given(customerService.getAll()).willReturn(List.of(response));
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/v1/customers")
+                        .param("all", "true")
+                        .accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn();
+
+        List<CustomerResponse> actual = new CBORMapper().findAndRegisterModules()
+                .readValue(mvcResult.getResponse().getContentAsByteArray(), new TypeReference<List<CustomerResponse>>() {
+                });
+        assertThat(actual).hasSize(1);
+        assertThat(actual.get(0).getEmail()).isEqualTo("gabi@yahoo.com");
+        assertThat(actual.get(0).getCreatedOn()).isEqualTo(response.getCreatedOn());
+
+    }
+
+    @Test
+    void addCustomerAsSmileTest() throws Exception {
+
+        AddressRequest addressRequest = new AddressRequest("Rom", "Iasi", "Musatini", "5", "440077");
+        CreateCustomerRequest request = new CreateCustomerRequest("Gabi", "Abrudan", "gabi@yahoo.com", "1997-01-02", addressRequest);
+        CustomerResponse response = CustomerResponse.builder().id(1L).firstName("Gabi").lastName("Abrudan").email("gabi@yahoo.com").age(27).build();
+
+        given(customerService.addCustomer(any())).willReturn(response);
+        SmileMapper smileMapper = new SmileMapper();
+
+        MvcResult mvcResult = mockMvc.perform(post("/api/v1/customers")
+                        .contentType("application/x-jackson-smile")
+                        .accept("application/x-jackson-smile")
+                        .content(smileMapper.writeValueAsBytes(request)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn();
+
+        CustomerResponse actual = smileMapper.readValue(mvcResult.getResponse().getContentAsByteArray(), CustomerResponse.class);
+        assertThat(actual.getId()).isEqualTo(1L);
+        verify(customerService).addCustomer(argThat(customer -> "gabi@yahoo.com".equals(customer.getEmail())
+                && "Iasi".equals(customer.getCurrentLivingAddress().getCity())));
+
+    }
 }
@@ -0,0 +1,233 @@
+package com.customer.data.unittest;
+
+import com.customer.data.event.CustomerChangedEvent;
+import com.customer.data.event.CustomerEventStream;
+import com.customer.data.response.CustomerResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CustomerEventStreamUnitTest {
+
+    private final CustomerEventStream eventStream = new CustomerEventStream(2, 3, 2, Duration.ofSeconds(5));
+
+    @AfterEach
+    void tearDown() {
+        eventStream.close();
+    }
+
+    @Test
+    void slowSubscriberIsDisconnectedTest() throws InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch completed = new CountDownLatch(1);
+        SseEmitter slowEmitter = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                try {
+                    blocked.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+
+            @Override
+            public void complete() {
+                completed.countDown();
+            }
+        };
+        RecordingEmitter fastEmitter = new RecordingEmitter();
+        eventStream.subscribe(slowEmitter, null);
+        eventStream.subscribe(fastEmitter, null);
+
+        for (int id = 1; id <= 5; id++) {
+            eventStream.onCustomerChanged(created(id));
+            fastEmitter.awaitEvents(id);
+        }
+
+        assertThat(completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(eventStream.getSubscriberCount()).isEqualTo(1);
+        blocked.countDown();
+    }
+
+    @Test
+    void transactionLargerThanTheBufferIsOneEntryTest() throws InterruptedException {
+        RecordingEmitter emitter = new RecordingEmitter();
+        eventStream.subscribe(emitter, null);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            for (int id = 1; id <= 10; id++) {
+                eventStream.onCustomerChanged(created(id));
+            }
+            assertThat(emitter.awaitEvents(0)).isEmpty();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(emitter.awaitEvents(10)).extracting(SentEvent::data).last().asString().contains("\"id\":10");
+        assertThat(eventStream.getSubscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    void rolledBackChangesAreNotSentTest() throws InterruptedException {
+        RecordingEmitter emitter = new RecordingEmitter();
+        eventStream.subscribe(emitter, null);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            eventStream.onCustomerChanged(created(1));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        eventStream.onCustomerChanged(created(2));
+
+        assertThat(emitter.awaitEvents(1)).extracting(SentEvent::data).singleElement().asString().contains("\"id\":2");
+    }
+
+    @Test
+    void subscriberCatchingUpIsKeptTest() throws InterruptedException {
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        RecordingEmitter emitter = new RecordingEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) {
+                sending.countDown();
+                try {
+                    blocked.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.send(builder);
+            }
+        };
+        eventStream.subscribe(emitter, null);
+        assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // the sender is blocked on the connected comment while the buffer of 2 fills and overflows
+        for (int id = 1; id <= 3; id++) {
+            eventStream.onCustomerChanged(created(id));
+        }
+        blocked.countDown();
+
+        assertThat(emitter.awaitEvents(3)).extracting(SentEvent::data).last().asString().contains("\"id\":3");
+        assertThat(eventStream.getSubscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    void blockedWritesDoNotHoldTheSendersTest() throws InterruptedException {
+        CustomerEventStream stream = new CustomerEventStream(2, 3, 2, Duration.ofMillis(200));
+        CountDownLatch never = new CountDownLatch(1);
+        try {
+            for (int i = 0; i < 3; i++) {
+                stream.subscribe(new SseEmitter() {
+                    @Override
+                    public void send(SseEventBuilder builder) throws IOException {
+                        try {
+                            never.await();
+                        } catch (InterruptedException e) {
+                            throw new IOException(e);
+                        }
+                    }
+                }, null);
+            }
+            RecordingEmitter healthy = new RecordingEmitter();
+            stream.subscribe(healthy, null);
+
+            stream.onCustomerChanged(created(1));
+
+            assertThat(healthy.awaitEvents(1)).extracting(SentEvent::data).singleElement().asString().contains("\"id\":1");
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (stream.getSubscriberCount() > 1 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(stream.getSubscriberCount()).isEqualTo(1);
+        } finally {
+            stream.close();
+        }
+    }
+
+    @Test
+    void resumeFromLastEventIdTest() throws InterruptedException {
+        eventStream.onCustomerChanged(created(1));
+        eventStream.onCustomerChanged(created(2));
+        RecordingEmitter first = new RecordingEmitter();
+        eventStream.subscribe(first, null);
+        eventStream.onCustomerChanged(created(3));
+        String lastEventId = first.awaitEvents(1).get(0).id();
+
+        eventStream.onCustomerChanged(created(4));
+        RecordingEmitter resumed = new RecordingEmitter();
+        eventStream.subscribe(resumed, lastEventId);
+
+        assertThat(resumed.awaitEvents(1)).extracting(SentEvent::data).singleElement().asString().contains("\"id\":4");
+    }
+
+    @Test
+    void resumeFromUnknownEventIdIsResetTest() throws InterruptedException {
+        for (long id = 1; id <= 5; id++) {
+            eventStream.onCustomerChanged(created(id));
+        }
+        RecordingEmitter resumed = new RecordingEmitter();
+        eventStream.subscribe(resumed, "unknown-1");
+
+        assertThat(resumed.awaitEvents(1)).extracting(SentEvent::name).containsExactly(CustomerEventStream.RESET_EVENT);
+    }
+
+    private static CustomerChangedEvent created(long id) {
+        return new CustomerChangedEvent(CustomerChangedEvent.Type.CREATED, CustomerResponse.builder().id(id).firstName("Gabi").build(), null);
+    }
+
+    private record SentEvent(String id, String name, String data) {
+    }
+
+    /**
+     * Emitter recording the events as the text written to the client
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<SentEvent> events = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            String id = null;
+            String name = null;
+            StringBuilder data = new StringBuilder();
+            for (DataWithMediaType part : builder.build()) {
+                data.append(part.getData() instanceof CustomerResponse customer ? "\"id\":" + customer.getId() : part.getData());
+            }
+            for (String line : data.toString().split("\n")) {
+                if (line.startsWith("id:")) {
+                    id = line.substring(3);
+                } else if (line.startsWith("event:")) {
+                    name = line.substring(6);
+                }
+            }
+            if (name != null) {
+                events.add(new SentEvent(id, name, data.toString()));
+            }
+        }
+
+        List<SentEvent> awaitEvents(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (events.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(events).hasSize(count);
+            return events;
+        }
+    }
+}
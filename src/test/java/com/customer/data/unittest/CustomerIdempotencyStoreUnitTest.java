@@ -0,0 +1,211 @@
+package com.customer.data.unittest;
+
+import com.customer.data.exception.CustomerValidationException;
+import com.customer.data.request.AddressRequest;
+import com.customer.data.request.CreateCustomerRequest;
+import com.customer.data.response.CustomerResponse;
+import com.customer.data.service.CustomerIdempotencyStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CustomerIdempotencyStoreUnitTest {
+
+    private final CreateCustomerRequest request = new CreateCustomerRequest("Gabi", "Abrudan", "gabi@yahoo.com", "1997-01-02",
+            new AddressRequest("Rom", "Iasi", "Musatini", "5", "440077"));
+
+    private final CustomerResponse response = CustomerResponse.builder().id(1L).firstName("Gabi").lastName("Abrudan").email("gabi@yahoo.com").build();
+
+    private CustomerIdempotencyStore idempotencyStore;
+
+    private AtomicInteger creations;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyStore = new CustomerIdempotencyStore(new SimpleMeterRegistry(), 100, Duration.ofHours(1), Duration.ofSeconds(1));
+        creations = new AtomicInteger();
+    }
+
+    @Test
+    void repeatedKeyReturnsTheSavedCustomerTest() throws CustomerValidationException {
+        CustomerIdempotencyStore.Result first = idempotencyStore.createOnce("key-1", request, this::create);
+        CustomerIdempotencyStore.Result second = idempotencyStore.createOnce("key-1", copyOf(request), this::create);
+
+        assertThat(first.replayed()).isFalse();
+        assertThat(second.replayed()).isTrue();
+        assertThat(second.customer()).isSameAs(first.customer());
+        assertThat(creations).hasValue(1);
+    }
+
+    @Test
+    void differentKeysCreateAgainTest() throws CustomerValidationException {
+        idempotencyStore.createOnce("key-1", request, this::create);
+        idempotencyStore.createOnce("key-2", request, this::create);
+
+        assertThat(creations).hasValue(2);
+    }
+
+    @Test
+    void concurrentRequestsWithTheSameKeyCreateOnceTest() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<CustomerIdempotencyStore.Result>> results = new ArrayList<>();
+            results.add(executor.submit(() -> idempotencyStore.createOnce("key-1", request, () -> {
+                started.countDown();
+                awaitQuietly(release);
+                return create();
+            })));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> idempotencyStore.createOnce("key-1", request, this::create)));
+            }
+            release.countDown();
+
+            int replayed = 0;
+            for (Future<CustomerIdempotencyStore.Result> result : results) {
+                CustomerIdempotencyStore.Result completed = result.get(5, TimeUnit.SECONDS);
+                assertThat(completed.customer()).isSameAs(response);
+                replayed += completed.replayed() ? 1 : 0;
+            }
+            assertThat(replayed).isEqualTo(3);
+            assertThat(creations).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void keyUsedForAnotherCustomerTest() throws CustomerValidationException {
+        idempotencyStore.createOnce("key-1", request, this::create);
+        CreateCustomerRequest other = new CreateCustomerRequest("Gabi", "Abrudan", "other@yahoo.com", "1997-01-02", request.getCurrentLivingAddress());
+
+        CustomerValidationException thrown = assertThrows(CustomerValidationException.class,
+                () -> idempotencyStore.createOnce("key-1", other, this::create));
+
+        assertThat(thrown.getMessage()).isEqualTo("Idempotency-Key was already used for another customer");
+        assertThat(creations).hasValue(1);
+    }
+
+    @Test
+    void invalidKeyTest() {
+        CustomerValidationException thrown = assertThrows(CustomerValidationException.class,
+                () -> idempotencyStore.createOnce(" ", request, this::create));
+
+        assertThat(thrown.getMessage()).isEqualTo("Idempotency-Key must have between 1 and " + CustomerIdempotencyStore.MAX_KEY_LENGTH + " characters");
+        assertThrows(CustomerValidationException.class,
+                () -> idempotencyStore.createOnce("k".repeat(CustomerIdempotencyStore.MAX_KEY_LENGTH + 1), request, this::create));
+        assertThat(creations).hasValue(0);
+    }
+
+    @Test
+    void validationErrorIsReturnedAgainTest() {
+        CustomerIdempotencyStore.CustomerCreation invalid = () -> {
+            creations.incrementAndGet();
+            throw new CustomerValidationException("This email already exists!");
+        };
+
+        assertThrows(CustomerValidationException.class, () -> idempotencyStore.createOnce("key-1", request, invalid));
+        CustomerValidationException thrown = assertThrows(CustomerValidationException.class,
+                () -> idempotencyStore.createOnce("key-1", request, invalid));
+
+        assertThat(thrown.getMessage()).isEqualTo("This email already exists!");
+        assertThat(creations).hasValue(1);
+    }
+
+    @Test
+    void unexpectedErrorIsNotKeptTest() throws CustomerValidationException {
+        assertThrows(IllegalStateException.class, () -> idempotencyStore.createOnce("key-1", request, () -> {
+            throw new IllegalStateException("The database is not available");
+        }));
+
+        CustomerIdempotencyStore.Result retried = idempotencyStore.createOnce("key-1", request, this::create);
+
+        assertThat(retried.replayed()).isFalse();
+        assertThat(creations).hasValue(1);
+    }
+
+    @Test
+    void errorIsNotKeptTest() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            Future<CustomerIdempotencyStore.Result> failed = executor.submit(() -> idempotencyStore.createOnce("key-1", request, () -> {
+                started.countDown();
+                awaitQuietly(release);
+                throw new NoClassDefFoundError("com/customer/data/Missing");
+            }));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<CustomerIdempotencyStore.Result> waiting = executor.submit(() -> idempotencyStore.createOnce("key-1", request, this::create));
+            // let the second request wait for the first one
+            Thread.sleep(200);
+            release.countDown();
+
+            assertThatThrownBy(() -> failed.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(NoClassDefFoundError.class);
+            assertThatThrownBy(() -> waiting.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(idempotencyStore.createOnce("key-1", request, this::create).replayed()).isFalse();
+    }
+
+    @Test
+    void waitForTheSameKeyTimesOutTest() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<CustomerIdempotencyStore.Result> first = executor.submit(() -> idempotencyStore.createOnce("key-1", request, () -> {
+                started.countDown();
+                awaitQuietly(release);
+                return create();
+            }));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> idempotencyStore.createOnce("key-1", request, this::create));
+            assertThat(thrown.getMessage()).isEqualTo("The customer with the same idempotency key is still being saved, retry later");
+
+            release.countDown();
+            assertThat(first.get(5, TimeUnit.SECONDS).replayed()).isFalse();
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(idempotencyStore.createOnce("key-1", request, this::create).replayed()).isTrue();
+    }
+
+    private CustomerResponse create() {
+        creations.incrementAndGet();
+        return response;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static CreateCustomerRequest copyOf(CreateCustomerRequest request) {
+        AddressRequest address = request.getCurrentLivingAddress();
+        return new CreateCustomerRequest(request.getFirstName(), request.getLastName(), request.getEmail(), request.getBirthDate(),
+                new AddressRequest(address.getCountry(), address.getCity(), address.getStreet(), address.getHouseNumber(), address.getPostalCode()));
+    }
+}
@@ -1,19 +1,25 @@
 package com.customer.data.unittest;
 
+import com.customer.data.entity.Address;
 import com.customer.data.entity.Customer;
 import com.customer.data.repository.CustomerRepositoryJpa;
+import com.customer.data.repository.CustomerView;
 import org.junit.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.runner.RunWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.junit4.SpringRunner;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @DataJpaTest
 @RunWith(SpringRunner.class)
@@ -53,7 +59,7 @@ public class CustomerRepositoryUnitTest {
         Customer employeeTwo = Customer.builder()
                 .firstName("Gabi")
                 .lastName("Abrudan")
-                .email("gabi@yahoo.com")
+                .email("gabi.abrudan@yahoo.com")
                 .age(date)
                 .build();
 
@@ -65,6 +71,71 @@ public class CustomerRepositoryUnitTest {
         assertThat(employees.size()).isEqualTo(2);
     }
 
+    @Test
+    public void findCustomersAfterIdTest() {
+        LocalDate date = LocalDate.of(1997, 1, 2);
+        Customer employeeOne = customerRepositoryJpa.save(Customer.builder().firstName("Gabi").lastName("Abrudan").age(date).build());
+        Customer employeeTwo = customerRepositoryJpa.save(Customer.builder().firstName("David").lastName("MMM").age(date).build());
+        Customer employeeThree = customerRepositoryJpa.save(Customer.builder().firstName("Ana").lastName("Pop").age(date).build());
+
+        List<CustomerView> page = customerRepositoryJpa.findViewsAfterId(employeeOne.getId(), Limit.of(1));
+
+        assertThat(page.size()).isEqualTo(1);
+        assertThat(page.get(0).id()).isEqualTo(employeeTwo.getId());
+        assertThat(customerRepositoryJpa.findViewsAfterId(employeeTwo.getId(), Limit.of(5)).get(0).id())
+                .isEqualTo(employeeThree.getId());
+    }
+
+    @Test
+    public void streamAllCustomersTest() {
+        LocalDate date = LocalDate.of(1997, 1, 2);
+        Address address = Address.builder().country("Rom").city("Iasi").street("Musatini").houseNumber("5").postalCode("440077").build();
+        Customer employeeOne = customerRepositoryJpa.save(Customer.builder().firstName("Gabi").lastName("Abrudan").age(date)
+                .currentLivingAddress(address).build());
+        Customer employeeTwo = customerRepositoryJpa.save(Customer.builder().firstName("David").lastName("MMM").age(date).build());
+
+        List<CustomerView> employees;
+        try (Stream<CustomerView> stream = customerRepositoryJpa.streamAllViews()) {
+            employees = stream.toList();
+        }
+
+        assertThat(employees.size()).isEqualTo(2);
+        assertThat(employees.get(0).id()).isEqualTo(employeeOne.getId());
+        assertThat(employees.get(0).city()).isEqualTo("Iasi");
+        assertThat(employees.get(1).id()).isEqualTo(employeeTwo.getId());
+        assertThat(employees.get(1).addressId()).isNull();
+    }
+
+    @Test
+    public void findCustomerViewsTest() {
+        LocalDate date = LocalDate.of(1997, 1, 2);
+        Address address = Address.builder().country("Rom").city("Iasi").street("Musatini").houseNumber("5").postalCode("440077").build();
+        Customer employeeOne = customerRepositoryJpa.save(Customer.builder().firstName("Gabi").lastName("Abrudan").email("gabi@yahoo.com")
+                .age(date).currentLivingAddress(address).build());
+        Customer employeeTwo = customerRepositoryJpa.save(Customer.builder().firstName("David").lastName("MMM").age(date).build());
+
+        CustomerView view = customerRepositoryJpa.findViewById(employeeOne.getId()).get();
+
+        assertThat(view.email()).isEqualTo("gabi@yahoo.com");
+        assertThat(view.birthDate()).isEqualTo(date);
+        assertThat(view.street()).isEqualTo("Musatini");
+        assertThat(customerRepositoryJpa.findViewById(employeeTwo.getId() + 100).isPresent()).isFalse();
+        assertThat(customerRepositoryJpa.findAllViews().size()).isEqualTo(2);
+        assertThat(customerRepositoryJpa.findViewsByIdIn(List.of(employeeTwo.getId())).get(0).firstName()).isEqualTo("David");
+    }
+
+    @Test
+    public void saveCustomerWithDuplicatedEmailTest() {
+        LocalDate date = LocalDate.of(1997, 1, 2);
+        customerRepositoryJpa.save(Customer.builder().firstName("Gabi").lastName("Abrudan").email("gabi@yahoo.com").age(date).build());
+
+        Throwable exception = assertThrows(DataIntegrityViolationException.class, () -> {
+            customerRepositoryJpa.saveAndFlush(Customer.builder().firstName("David").lastName("MMM").email("gabi@yahoo.com").age(date).build());
+        });
+
+        assertThat(exception.getMessage()).containsIgnoringCase(Customer.EMAIL_CONSTRAINT);
+    }
+
     @Test
     public void findByIdCustomerTest() {
         LocalDate date = LocalDate.of(1997, 1, 2);
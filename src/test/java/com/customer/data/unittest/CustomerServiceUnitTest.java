@@ -2,28 +2,46 @@ package com.customer.data.unittest;
 
 import com.customer.data.entity.Address;
 import com.customer.data.entity.Customer;
+import com.customer.data.event.CustomerChangedEvent;
 import com.customer.data.exception.CustomerValidationException;
+import com.customer.data.index.EmailIndex;
+import com.customer.data.index.NamePrefixIndex;
 import com.customer.data.repository.CustomerRepositoryJpa;
+import com.customer.data.repository.CustomerView;
 import com.customer.data.request.AddressRequest;
 import com.customer.data.request.CreateCustomerRequest;
 import com.customer.data.request.UpdateCustomerRequest;
+import com.customer.data.response.BatchCustomerResponse;
+import com.customer.data.response.CustomerPageResponse;
 import com.customer.data.response.CustomerResponse;
 import com.customer.data.service.CustomerService;
+import com.customer.data.service.CustomerEmailRegistry;
+import com.customer.data.service.CustomerShards;
 import org.junit.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.junit4.SpringRunner;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -35,6 +53,21 @@ public class CustomerServiceUnitTest {
     @Mock
     private CustomerRepositoryJpa repository;
 
+    @Mock
+    private EmailIndex emailIndex;
+
+    @Mock
+    private NamePrefixIndex nameIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CustomerEmailRegistry emailRegistry;
+
+    @Spy
+    private CustomerShards shards = new CustomerShards(false, List.of(), null, 1);
+
     @InjectMocks
     private CustomerService customerService;
 
@@ -45,7 +78,7 @@ public class CustomerServiceUnitTest {
         Customer customer = Customer.builder().id(1L).firstName("Gabi").lastName("Abrudan").email("gabi@yahoo.com").age(date).build();
         List<Customer> customerList = List.of(customer);
 
-        when(repository.findAll()).thenReturn(customerList);
+        when(repository.findAllViews()).thenReturn(customerList.stream().map(CustomerServiceUnitTest::view).toList());
 
         // when -  action or the behaviour that we are going test
         List<CustomerResponse> result = customerService.getAll();
@@ -59,6 +92,38 @@ public class CustomerServiceUnitTest {
         assertThat(result.get(0).getAge()).isEqualTo(27);
     }
 
+    @Test
+    public void getPageOfCustomersTest() throws CustomerValidationException {
+        // given - precondition or setup
+        LocalDate date = LocalDate.of(1997, 1, 2);
+        Customer first = Customer.builder().id(3L).firstName("Gabi").lastName("Abrudan").email("gabi@yahoo.com").age(date).build();
+        Customer second = Customer.builder().id(7L).firstName("David").lastName("MMM").email("david@yahoo.com").age(date).build();
+
+        when(repository.findViewsAfterId(0L, Limit.of(2))).thenReturn(List.of(view(first), view(second)));
+        when(repository.findViewsAfterId(3L, Limit.of(2))).thenReturn(List.of(view(second)));
+
+        // when -  action or the behaviour that we are going test
+        CustomerPageResponse firstPage = customerService.getPage(null, 1);
+        CustomerPageResponse secondPage = customerService.getPage(firstPage.getNextCursor(), 1);
+
+        // then - verify the output
+        assertThat(firstPage.getCustomers().size()).isEqualTo(1);
+        assertThat(firstPage.getCustomers().get(0).getId()).isEqualTo(3L);
+        assertThat(firstPage.getNextCursor()).isNotNull();
+        assertThat(secondPage.getCustomers().size()).isEqualTo(1);
+        assertThat(secondPage.getCustomers().get(0).getId()).isEqualTo(7L);
+        assertThat(secondPage.getNextCursor()).isNull();
+    }
+
+    @Test
+    public void getPageWithInvalidCursorTest() {
+        Throwable exception = assertThrows(CustomerValidationException.class, () -> {
+            customerService.getPage("not a cursor", 10);
+        });
+
+        assertEquals("The cursor is not valid!", exception.getMessage());
+    }
+
     @Test
     public void addCustomerWithoutAddressTest() throws CustomerValidationException {
         // given - precondition or setup
@@ -123,10 +188,7 @@ public class CustomerServiceUnitTest {
         AddressRequest addressRequest = new AddressRequest();
         CreateCustomerRequest createCustomerRequest = new CreateCustomerRequest("Gabi", "Abrudan", "gabi@yahoo.com", requestDate, addressRequest);
 
-        Customer customer = Customer.builder().id(1L).firstName("David").lastName("MMM").email("david@yahoo.com").age(date).build();
-        List<Customer> customerList = List.of(customer);
-
-        when(repository.findByEmail(any(String.class))).thenReturn(customerList);
+        when(emailIndex.contains("gabi@yahoo.com")).thenReturn(true);
 
         Throwable exception = assertThrows(CustomerValidationException.class, () -> {
             customerService.addCustomer(createCustomerRequest);
@@ -135,6 +197,35 @@ public class CustomerServiceUnitTest {
         assertEquals("This email already exists!", exception.getMessage());
     }
 
+    @Test
+    public void addCustomersBatchTest() throws CustomerValidationException {
+        // given - precondition or setup
+        String requestDate = "1997-01-02";
+        AddressRequest addressRequest = new AddressRequest("Rom", "Iasi", "Musatini", "5", "440077");
+        Map<Integer, CreateCustomerRequest> requests = new LinkedHashMap<>();
+        requests.put(0, new CreateCustomerRequest("Gabi", "Abrudan", "gabi@yahoo.com", requestDate, addressRequest));
+        requests.put(1, new CreateCustomerRequest("David", "MMM", "david@yahoo.com", requestDate, null));
+        requests.put(2, new CreateCustomerRequest("Ana", "Pop", "ana@yahoo.com", requestDate, null));
+        requests.put(3, new CreateCustomerRequest("Ion", "Pop", "ana@yahoo.com", requestDate, null));
+        requests.put(4, new CreateCustomerRequest("Young", "Pop", null, "2015-04-16", addressRequest));
+
+        when(emailIndex.contains("david@yahoo.com")).thenReturn(true);
+
+        // when -  action or the behaviour that we are going test
+        List<BatchCustomerResponse> result = customerService.addCustomers(requests);
+
+        // then - verify the output
+        Map<Integer, BatchCustomerResponse> resultByIndex = result.stream().collect(Collectors.toMap(BatchCustomerResponse::getIndex, item -> item));
+        assertThat(resultByIndex.get(0).getStatus()).isEqualTo(BatchCustomerResponse.Status.CREATED);
+        assertThat(resultByIndex.get(0).getCustomer().getCurrentLivingAddress().getCity()).isEqualTo("Iasi");
+        assertThat(resultByIndex.get(1).getErrorMessage()).isEqualTo("This email already exists!");
+        assertThat(resultByIndex.get(2).getStatus()).isEqualTo(BatchCustomerResponse.Status.CREATED);
+        assertThat(resultByIndex.get(3).getErrorMessage()).isEqualTo("This email already exists!");
+        assertThat(resultByIndex.get(4).getErrorMessage()).isEqualTo("Customer age is smaller than 18!");
+        verify(repository).saveAllAndFlush(argThat(customers -> ((Collection<Customer>) customers).size() == 2));
+        verify(eventPublisher, times(2)).publishEvent(any(CustomerChangedEvent.class));
+    }
+
     @Test
     public void addCustomersWithAgeBelow18Test() throws CustomerValidationException {
         // given - precondition or setup
@@ -156,7 +247,7 @@ public class CustomerServiceUnitTest {
         LocalDate date = LocalDate.of(1997, 1, 2);
         Customer customer = Customer.builder().id(1L).firstName("Gabi").lastName("Abrudan").email("gabi@yahoo.com").age(date).build();
 
-        when(repository.findById(any(Long.class))).thenReturn(Optional.of(customer));
+        when(repository.findViewById(any(Long.class))).thenReturn(Optional.of(view(customer)));
 
         // when -  action or the behaviour that we are going test
         CustomerResponse result = customerService.getCustomerById(1L);
@@ -169,7 +260,36 @@ public class CustomerServiceUnitTest {
     }
 
     @Test
-    public void getCustomerByFirstNameTest(){
+    public void getCustomerByIdWithAddressTest() throws CustomerValidationException {
+        // given - precondition or setup
+        LocalDate date = LocalDate.of(1997, 1, 2);
+        Address address = Address.builder().id(5L).country("Rom").city("Iasi").street("Musatini").houseNumber("5").postalCode("440077").build();
+        Customer customer = Customer.builder().id(1L).firstName("Gabi").lastName("Abrudan").age(date).currentLivingAddress(address).build();
+
+        when(repository.findViewById(1L)).thenReturn(Optional.of(view(customer)));
+
+        // when -  action or the behaviour that we are going test
+        CustomerResponse result = customerService.getCustomerById(1L);
+
+        // then - verify the output
+        assertThat(result.getEmail()).isNull();
+        assertThat(result.getCurrentLivingAddress().getCity()).isEqualTo(address.getCity());
+        assertThat(result.getCurrentLivingAddress().getPostalCode()).isEqualTo(address.getPostalCode());
+    }
+
+    @Test
+    public void getNotExistingCustomerByIdTest() {
+        when(repository.findViewById(1L)).thenReturn(Optional.empty());
+
+        Throwable exception = assertThrows(CustomerValidationException.class, () -> {
+            customerService.getCustomerById(1L);
+        });
+
+        assertEquals("The customer with id 1 doesn't exist", exception.getMessage());
+    }
+
+    @Test
+    public void getCustomerByFirstNameTest() throws CustomerValidationException {
         // given - precondition or setup
 
         LocalDate date = LocalDate.of(1997, 1, 2);
@@ -177,10 +297,11 @@ public class CustomerServiceUnitTest {
         List<Customer> customerList = List.of(customer);
         String firstName = "Gabi";
 
-        when(repository.findByFirstNameStartsWithIgnoreCaseOrLastNameStartsWithIgnoreCase(any(String.class), any(String.class))).thenReturn(customerList);
+        when(nameIndex.search(firstName, 20)).thenReturn(List.of(1L));
+        when(repository.findViewsByIdIn(List.of(1L))).thenReturn(customerList.stream().map(CustomerServiceUnitTest::view).toList());
 
         // when -  action or the behaviour that we are going test
-        List<CustomerResponse> result = customerService.getCustomerByName(firstName);
+        List<CustomerResponse> result = customerService.getCustomerByName(firstName, 20);
 
         // then - verify the output
         assertThat(result).isNotNull();
@@ -191,6 +312,34 @@ public class CustomerServiceUnitTest {
         assertThat(result.get(0).getAge()).isEqualTo(27);
     }
 
+    @Test
+    public void getCustomerByNameKeepsIndexOrderTest() throws CustomerValidationException {
+        // given - precondition or setup
+        LocalDate date = LocalDate.of(1997, 1, 2);
+        Customer gabi = Customer.builder().id(1L).firstName("Gabi").lastName("Abrudan").email("gabi@yahoo.com").age(date).build();
+        Customer ana = Customer.builder().id(2L).firstName("Ana").lastName("Gal").email("ana@yahoo.com").age(date).build();
+
+        when(nameIndex.search("ga", 2)).thenReturn(List.of(1L, 2L));
+        when(repository.findViewsByIdIn(List.of(1L, 2L))).thenReturn(List.of(view(ana), view(gabi)));
+
+        // when -  action or the behaviour that we are going test
+        List<CustomerResponse> result = customerService.getCustomerByName("ga", 2);
+
+        // then - verify the output
+        assertThat(result.size()).isEqualTo(2);
+        assertThat(result.get(0).getFirstName()).isEqualTo("Gabi");
+        assertThat(result.get(1).getFirstName()).isEqualTo("Ana");
+    }
+
+    @Test
+    public void getCustomerByNameWithInvalidLimitTest() {
+        Throwable exception = assertThrows(CustomerValidationException.class, () -> {
+            customerService.getCustomerByName("ga", 0);
+        });
+
+        assertEquals("Search limit must be between 1 and 100", exception.getMessage());
+    }
+
     @Test
     public void updateCustomerWithoutAddressTest() throws CustomerValidationException {
         // given - precondition or setup
@@ -308,4 +457,15 @@ public class CustomerServiceUnitTest {
         assertEquals("The customer with id 1 doesn't exist", exception.getMessage());
     }
 
+    private static CustomerView view(Customer customer) {
+        Address address = customer.getCurrentLivingAddress();
+        if (address == null) {
+            return new CustomerView(customer.getId(), customer.getFirstName(), customer.getLastName(), customer.getEmail(), customer.getAge(),
+                    customer.getCreatedOn(), customer.getLastUpdatedOn(), null, null, null, null, null, null);
+        }
+        return new CustomerView(customer.getId(), customer.getFirstName(), customer.getLastName(), customer.getEmail(), customer.getAge(),
+                customer.getCreatedOn(), customer.getLastUpdatedOn(), address.getId(), address.getCountry(), address.getCity(),
+                address.getStreet(), address.getHouseNumber(), address.getPostalCode());
+    }
+
 }
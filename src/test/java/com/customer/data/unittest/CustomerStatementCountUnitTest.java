@@ -0,0 +1,106 @@
+package com.customer.data.unittest;
+
+import com.customer.data.entity.Address;
+import com.customer.data.entity.Customer;
+import com.customer.data.repository.CustomerRepositoryJpa;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The number of statements run by the customer queries must not grow with the number of returned customers
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class CustomerStatementCountUnitTest {
+
+    @Autowired
+    private CustomerRepositoryJpa customerRepositoryJpa;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void findAllStatementCountTest() {
+        assertConstantStatementCount(() -> customerRepositoryJpa.findAll());
+    }
+
+    @Test
+    void findAllByIdStatementCountTest() {
+        assertConstantStatementCount(() -> customerRepositoryJpa.findAllById(allIds()));
+    }
+
+    @Test
+    void findByNameStatementCountTest() {
+        assertConstantStatementCount(() -> customerRepositoryJpa.findByFirstNameStartsWithIgnoreCaseOrLastNameStartsWithIgnoreCase("ga", "ga"));
+    }
+
+    @Test
+    void findAllViewsStatementCountTest() {
+        assertConstantStatementCount(() -> customerRepositoryJpa.findAllViews());
+    }
+
+    @Test
+    void findViewsByIdStatementCountTest() {
+        assertConstantStatementCount(() -> customerRepositoryJpa.findViewsByIdIn(allIds()));
+    }
+
+    @Test
+    void findByIdLoadsAddressInOneStatementTest() {
+        List<Customer> customers = saveCustomers(1);
+
+        long statements = countStatements(() -> customerRepositoryJpa.findById(customers.get(0).getId())
+                .map(Customer::getCurrentLivingAddress).map(Address::getCity).orElseThrow());
+
+        assertThat(statements).isEqualTo(1);
+    }
+
+    private void assertConstantStatementCount(Supplier<List<?>> query) {
+        saveCustomers(5);
+        long fewCustomers = countStatements(() -> assertThat(query.get()).hasSize(5));
+
+        saveCustomers(45);
+        long manyCustomers = countStatements(() -> assertThat(query.get()).hasSize(50));
+
+        assertThat(manyCustomers).isEqualTo(fewCustomers);
+    }
+
+    private long countStatements(Runnable action) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private List<Long> allIds() {
+        return customerRepositoryJpa.findAllViews().stream().map(view -> view.id()).toList();
+    }
+
+    private List<Customer> saveCustomers(int count) {
+        LocalDate date = LocalDate.of(1997, 1, 2);
+        List<Customer> customers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Address address = Address.builder().country("Rom").city("Iasi").street("Musatini").houseNumber(String.valueOf(i)).postalCode("440077").build();
+            customers.add(Customer.builder().firstName("Gabi").lastName("Abrudan").age(date).currentLivingAddress(address).build());
+        }
+        return customerRepositoryJpa.saveAll(customers);
+    }
+}
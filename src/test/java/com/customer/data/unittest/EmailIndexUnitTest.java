@@ -0,0 +1,104 @@
+package com.customer.data.unittest;
+
+import com.customer.data.event.CustomerChangedEvent;
+import com.customer.data.index.BloomFilter;
+import com.customer.data.index.EmailIndex;
+import com.customer.data.repository.CustomerRepositoryJpa;
+import com.customer.data.response.CustomerResponse;
+import com.customer.data.service.CustomerShards;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class EmailIndexUnitTest {
+
+    private CustomerRepositoryJpa repository;
+
+    private EmailIndex emailIndex;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(CustomerRepositoryJpa.class);
+        emailIndex = new EmailIndex(repository, mock(PlatformTransactionManager.class), new CustomerShards(false, List.of(), null, 1));
+    }
+
+    @Test
+    void loadRegisteredEmailsTest() {
+        when(repository.count()).thenReturn(2L);
+        when(repository.streamAllEmails()).thenReturn(Stream.of("gabi@yahoo.com", "David@Yahoo.com"));
+
+        emailIndex.load();
+
+        assertThat(emailIndex.contains("gabi@yahoo.com")).isTrue();
+        assertThat(emailIndex.contains(" david@yahoo.com ")).isTrue();
+        assertThat(emailIndex.contains("ana@yahoo.com")).isFalse();
+        assertThat(emailIndex.contains(null)).isFalse();
+    }
+
+    @Test
+    void emailsSavedWhileLoadingAreKeptTest() {
+        when(repository.streamAllEmails()).thenReturn(Stream.of("gabi@yahoo.com"));
+        when(repository.existsByEmailKey("david@yahoo.com")).thenReturn(true);
+
+        assertThat(emailIndex.isLoaded()).isFalse();
+        assertThat(emailIndex.contains("David@Yahoo.com")).isTrue();
+        assertThat(emailIndex.contains("gabi@yahoo.com")).isFalse();
+        emailIndex.add("ana@yahoo.com");
+
+        emailIndex.load();
+
+        assertThat(emailIndex.isLoaded()).isTrue();
+        assertThat(emailIndex.contains("gabi@yahoo.com")).isTrue();
+        assertThat(emailIndex.contains("ana@yahoo.com")).isTrue();
+        verify(repository, times(2)).existsByEmailKey(anyString());
+    }
+
+    @Test
+    void updatedEmailIsReplacedTest() {
+        emailIndex.load();
+        emailIndex.add("gabi@yahoo.com");
+        CustomerResponse customer = CustomerResponse.builder().id(1L).email("gabi.abrudan@yahoo.com").build();
+
+        emailIndex.onCustomerChanged(new CustomerChangedEvent(CustomerChangedEvent.Type.UPDATED, customer, "gabi@yahoo.com"));
+
+        assertThat(emailIndex.contains("gabi@yahoo.com")).isFalse();
+        assertThat(emailIndex.contains("gabi.abrudan@yahoo.com")).isTrue();
+    }
+
+    @Test
+    void indexGrowsPastItsInitialCapacityTest() {
+        emailIndex.load();
+        for (int i = 0; i < 250_000; i++) {
+            emailIndex.add("customer" + i + "@yahoo.com");
+        }
+
+        for (int i = 0; i < 250_000; i++) {
+            assertThat(emailIndex.contains("customer" + i + "@yahoo.com")).isTrue();
+        }
+        assertThat(emailIndex.contains("customer250000@yahoo.com")).isFalse();
+    }
+
+    @Test
+    void bloomFilterFalsePositiveRateTest() {
+        BloomFilter bloomFilter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            bloomFilter.put("customer" + i + "@yahoo.com");
+        }
+
+        int falsePositives = 0;
+        for (int i = 10_000; i < 110_000; i++) {
+            if (bloomFilter.mightContain("customer" + i + "@yahoo.com")) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(bloomFilter.mightContain("customer42@yahoo.com")).isTrue();
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+}
@@ -0,0 +1,130 @@
+package com.customer.data.unittest;
+
+import com.customer.data.filter.GradientConcurrencyLimit;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class GradientConcurrencyLimitUnitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(50);
+
+    @Test
+    void rejectOverTheLimitTest() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(2, 1, 10);
+
+        GradientConcurrencyLimit.Permit first = limit.tryAcquire("a");
+        GradientConcurrencyLimit.Permit second = limit.tryAcquire("a");
+
+        assertThat(first).isNotNull();
+        assertThat(second).isNotNull();
+        assertThat(limit.tryAcquire("b")).isNull();
+        assertThat(limit.getRejectedByLimit()).isEqualTo(1);
+
+        first.releaseWithoutSample();
+        first.releaseWithoutSample();
+
+        assertThat(limit.getInFlight()).isEqualTo(1);
+        assertThat(limit.tryAcquire("b")).isNotNull();
+    }
+
+    @Test
+    void limitGrowsWhileLatencyIsSteadyTest() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(10, 4, 100);
+
+        for (int i = 0; i < 20; i++) {
+            runFullLimit(limit, FAST);
+        }
+
+        assertThat(limit.getLimit()).isGreaterThan(10);
+        assertThat(limit.getInFlight()).isZero();
+    }
+
+    @Test
+    void limitShrinksWhenLatencyRisesTest() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(50, 4, 100);
+        for (int i = 0; i < 5; i++) {
+            runFullLimit(limit, FAST);
+        }
+        int steadyLimit = limit.getLimit();
+
+        for (int i = 0; i < 5; i++) {
+            runFullLimit(limit, SLOW);
+        }
+
+        assertThat(limit.getLimit()).isLessThan(steadyLimit);
+    }
+
+    @Test
+    void limitDoesNotGrowWhenMostlyUnusedTest() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(20, 4, 100);
+
+        for (int i = 0; i < 100; i++) {
+            limit.tryAcquire("a").release(FAST);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(20);
+    }
+
+    @Test
+    void clientCannotTakeTheShareOfAnotherClientTest() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(4, 4, 4);
+        assertThat(limit.tryAcquire("a")).isNotNull();
+        assertThat(limit.tryAcquire("b")).isNotNull();
+        assertThat(limit.tryAcquire("a")).isNotNull();
+
+        assertThat(limit.tryAcquire("a")).isNull();
+        assertThat(limit.getRejectedByClientShare()).isEqualTo(1);
+        assertThat(limit.tryAcquire("b")).isNotNull();
+        assertThat(limit.getClients()).isEqualTo(2);
+    }
+
+    @Test
+    void newSubClientsDoNotGetMoreThanTheirClientTest() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(4, 4, 4);
+        assertThat(limit.tryAcquire("10.0.0.2", "honest")).isNotNull();
+
+        assertThat(limit.tryAcquire("10.0.0.1", "first")).isNotNull();
+        assertThat(limit.tryAcquire("10.0.0.1", "second")).isNotNull();
+        assertThat(limit.tryAcquire("10.0.0.1", "third")).isNull();
+
+        assertThat(limit.tryAcquire("10.0.0.2", "honest")).isNotNull();
+        assertThat(limit.getClients()).isEqualTo(2);
+    }
+
+    @Test
+    void subClientCannotTakeTheShareOfAnotherSubClientTest() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(4, 4, 4);
+        GradientConcurrencyLimit.Permit first = limit.tryAcquire("10.0.0.1", "billing");
+        assertThat(limit.tryAcquire("10.0.0.1", "reports")).isNotNull();
+        assertThat(limit.tryAcquire("10.0.0.1", "billing")).isNotNull();
+
+        assertThat(limit.tryAcquire("10.0.0.1", "billing")).isNull();
+        assertThat(limit.tryAcquire("10.0.0.1", "reports")).isNotNull();
+
+        first.releaseWithoutSample();
+        assertThat(limit.getInFlight()).isEqualTo(3);
+    }
+
+    @Test
+    void invalidLimitsTest() {
+        assertThrows(IllegalArgumentException.class, () -> new GradientConcurrencyLimit(0, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new GradientConcurrencyLimit(20, 4, 10));
+    }
+
+    private static void runFullLimit(GradientConcurrencyLimit limit, long rttNanos) {
+        List<GradientConcurrencyLimit.Permit> permits = new ArrayList<>();
+        GradientConcurrencyLimit.Permit permit;
+        while ((permit = limit.tryAcquire("client" + permits.size())) != null) {
+            permits.add(permit);
+        }
+        permits.forEach(acquired -> acquired.release(rttNanos));
+    }
+}
@@ -0,0 +1,45 @@
+package com.customer.data.unittest;
+
+import com.customer.data.validation.IsoDateValidator;
+import com.customer.data.request.CreateCustomerRequest;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IsoDateValidatorUnitTest {
+
+    @Test
+    void parseValidDatesTest() {
+        assertThat(IsoDateValidator.parse("1997-01-02")).isEqualTo(LocalDate.of(1997, 1, 2));
+        assertThat(IsoDateValidator.parse("2000-02-29")).isEqualTo(LocalDate.of(2000, 2, 29));
+        assertThat(IsoDateValidator.parse("0001-12-31")).isEqualTo(LocalDate.of(1, 12, 31));
+    }
+
+    @Test
+    void parseInvalidDatesTest() {
+        assertThat(IsoDateValidator.parse(null)).isNull();
+        assertThat(IsoDateValidator.parse("")).isNull();
+        assertThat(IsoDateValidator.parse("1997/01/02")).isNull();
+        assertThat(IsoDateValidator.parse("1997-1-2")).isNull();
+        assertThat(IsoDateValidator.parse("1997-01-02x")).isNull();
+        assertThat(IsoDateValidator.parse("19a7-01-02")).isNull();
+        assertThat(IsoDateValidator.parse("0000-01-02")).isNull();
+        assertThat(IsoDateValidator.parse("1997-13-02")).isNull();
+        assertThat(IsoDateValidator.parse("1997-00-02")).isNull();
+        assertThat(IsoDateValidator.parse("1997-02-29")).isNull();
+        assertThat(IsoDateValidator.parse("1900-02-29")).isNull();
+        assertThat(IsoDateValidator.parse("1997-04-31")).isNull();
+        assertThat(IsoDateValidator.parse("1997-01-00")).isNull();
+    }
+
+    @Test
+    void requestParsesBirthDateOnceTest() {
+        CreateCustomerRequest request = new CreateCustomerRequest("Gabi", "Abrudan", "gabi@yahoo.com", "1997-01-02", null);
+
+        assertThat(request.getBirthLocalDate()).isEqualTo(LocalDate.of(1997, 1, 2));
+        assertThat(request.getBirthLocalDate()).isSameAs(request.getBirthLocalDate());
+        assertThat(new CreateCustomerRequest("Gabi", "Abrudan", "gabi@yahoo.com", "1997/01/02", null).getBirthLocalDate()).isNull();
+    }
+}
@@ -0,0 +1,73 @@
+package com.customer.data.unittest;
+
+import com.customer.data.event.CustomerChangedEvent;
+import com.customer.data.index.NamePrefixIndex;
+import com.customer.data.repository.CustomerName;
+import com.customer.data.repository.CustomerRepositoryJpa;
+import com.customer.data.response.CustomerResponse;
+import com.customer.data.service.CustomerShards;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class NamePrefixIndexUnitTest {
+
+    private CustomerRepositoryJpa repository;
+
+    private NamePrefixIndex nameIndex;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(CustomerRepositoryJpa.class);
+        nameIndex = new NamePrefixIndex(repository, mock(PlatformTransactionManager.class), new CustomerShards(false, List.of(), null, 1));
+    }
+
+    @Test
+    void searchByFirstOrLastNamePrefixTest() {
+        when(repository.streamAllNames()).thenReturn(Stream.of(
+                new CustomerName(3L, "Gabi", "Abrudan"),
+                new CustomerName(1L, "David", "Gabor"),
+                new CustomerName(2L, "Ana", "Pop"),
+                new CustomerName(4L, "Gabriel", "Galan")));
+
+        nameIndex.load();
+
+        assertThat(nameIndex.search("GA", 10)).isEqualTo(List.of(3L, 1L, 4L));
+        assertThat(nameIndex.search("gab", 2)).isEqualTo(List.of(3L, 1L));
+        assertThat(nameIndex.search("pop", 10)).isEqualTo(List.of(2L));
+        assertThat(nameIndex.search("x", 10)).isEmpty();
+    }
+
+    @Test
+    void createdCustomerIsSearchableTest() {
+        CustomerResponse customer = CustomerResponse.builder().id(7L).firstName("Ioana").lastName("Ionescu").build();
+        nameIndex.load();
+
+        nameIndex.onCustomerChanged(new CustomerChangedEvent(CustomerChangedEvent.Type.CREATED, customer, null));
+        nameIndex.onCustomerChanged(new CustomerChangedEvent(CustomerChangedEvent.Type.UPDATED, customer, null));
+
+        assertThat(nameIndex.search("io", 10)).isEqualTo(List.of(7L));
+    }
+
+    @Test
+    void searchBeforeLoadReadsTheDatabaseTest() {
+        when(repository.findNamesByFirstNameLike("ga%", Limit.of(2))).thenReturn(List.of(
+                new CustomerName(3L, "Gabi", "Abrudan"),
+                new CustomerName(4L, "Gabriel", "Galan")));
+        when(repository.findNamesByLastNameLike("ga%", Limit.of(2))).thenReturn(List.of(
+                new CustomerName(1L, "David", "Gabor"),
+                new CustomerName(4L, "Gabriel", "Galan")));
+        when(repository.findNamesByLastNameLike("a\\_%", Limit.of(10))).thenReturn(List.of(new CustomerName(5L, "Ana", "A_b")));
+
+        assertThat(nameIndex.isLoaded()).isFalse();
+        assertThat(nameIndex.search("GA", 2)).isEqualTo(List.of(3L, 1L));
+        assertThat(nameIndex.search("a_", 10)).isEqualTo(List.of(5L));
+    }
+}
@@ -0,0 +1,58 @@
+package com.customer.data.unittest;
+
+import com.customer.data.storage.SnapshotEndpoint;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SnapshotEndpointUnitTest {
+
+    @TempDir
+    private Path snapshotDirectory;
+
+    @Test
+    void snapshotWhileAnotherIsWrittenIsRejectedTest() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate() {
+            @Override
+            public void execute(String sql) {
+                started.countDown();
+                try {
+                    release.await();
+                    Path file = Path.of(sql.substring(sql.indexOf('\'') + 1, sql.lastIndexOf('\'')));
+                    Files.write(file, new byte[]{1});
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+        SnapshotEndpoint snapshotEndpoint = new SnapshotEndpoint(jdbcTemplate, snapshotDirectory, "customers");
+
+        CompletableFuture<SnapshotEndpoint.Snapshot> first = CompletableFuture.supplyAsync(() -> {
+            try {
+                return snapshotEndpoint.snapshot();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, snapshotEndpoint::snapshot);
+        assertThat(thrown.getMessage()).isEqualTo("A snapshot is already being written");
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS).sizeBytes()).isEqualTo(1);
+        Thread.sleep(10);
+        assertThat(snapshotEndpoint.snapshot().sizeBytes()).isEqualTo(1);
+    }
+}